@@ -1,7 +1,9 @@
 package com.NE.chloe_Java.config;
 
 import com.NE.chloe_Java.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -28,6 +30,9 @@ public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final UserDetailsService userDetailsService;
 
+    @Value("${auth.bcrypt.strength:10}")
+    private int bcryptStrength;
+
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -36,6 +41,9 @@ public class SecurityConfig {
                 .sessionManagement(session ->
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches of streamed responses were already authorized on the initial request
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // Public endpoints
                         .requestMatchers(
                                 "/api/v1/auth/**",
@@ -58,7 +66,9 @@ public class SecurityConfig {
                         // Payslip management endpoints
                         .requestMatchers("/api/v1/payslips/generate").hasRole("MANAGER")
                         .requestMatchers("/api/v1/payslips/*/approve").hasRole("ADMIN")
-                        .requestMatchers("/api/v1/payslips/pending").hasAnyRole("MANAGER", "ADMIN")
+                        .requestMatchers("/api/v1/payslips/runs/**").hasRole("MANAGER")
+                        .requestMatchers("/api/v1/payslips/pending", "/api/v1/payslips/pending/**").hasAnyRole("MANAGER", "ADMIN")
+                        .requestMatchers("/api/v1/payslips/export").hasAnyRole("MANAGER", "ADMIN")
                         .requestMatchers("/api/v1/payslips/employee/**").authenticated()
                         .requestMatchers("/api/v1/payslips/*/download").authenticated()
 
@@ -95,6 +105,7 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        // Raising the strength makes logins rehash existing passwords to the new work factor
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 }
\ No newline at end of file
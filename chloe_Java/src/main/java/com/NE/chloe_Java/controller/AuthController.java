@@ -2,6 +2,7 @@ package com.NE.chloe_Java.controller;
 
 import com.NE.chloe_Java.dto.auth.AuthResponse;
 import com.NE.chloe_Java.dto.auth.LoginRequest;
+import com.NE.chloe_Java.dto.auth.RefreshTokenRequest;
 import com.NE.chloe_Java.dto.auth.RegisterRequest;
 import com.NE.chloe_Java.dto.employee.EmployeeRequest;
 import com.NE.chloe_Java.service.AuthService;
@@ -10,6 +11,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -20,6 +22,9 @@ import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @RestController
@@ -66,19 +71,53 @@ public class AuthController {
 
     @Operation(summary = "Login user", description = "Authenticate and receive JWT token with role-based permissions")
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@Valid @RequestBody LoginRequest request) {
+        // Completes on the password hashing pool, releasing the request thread while BCrypt runs
+        return authService.login(request)
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                    if (cause instanceof RejectedExecutionException) {
+                        return ResponseEntity
+                                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .header(HttpHeaders.RETRY_AFTER, "1")
+                                .body(AuthResponse.builder()
+                                        .message("Too many login attempts, please try again shortly")
+                                        .build());
+                    }
+                    return ResponseEntity
+                            .status(HttpStatus.UNAUTHORIZED)
+                            .body(AuthResponse.builder()
+                                    .message("Invalid credentials")
+                                    .build());
+                });
+    }
+
+    @Operation(summary = "Refresh tokens", description = "Exchange a refresh token for a new access and refresh token pair")
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
         try {
-            AuthResponse response = authService.login(request);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
+            return ResponseEntity.ok(authService.refresh(request));
+        } catch (IllegalArgumentException e) {
             return ResponseEntity
                     .status(HttpStatus.UNAUTHORIZED)
                     .body(AuthResponse.builder()
-                            .message("Invalid credentials")
+                            .message(e.getMessage())
                             .build());
         }
     }
 
+    @Operation(summary = "Logout", description = "Revoke the current access token and the given refresh token")
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                       @RequestBody(required = false) RefreshTokenRequest request) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7)
+                : null;
+        authService.logout(accessToken, request != null ? request.getRefreshToken() : null);
+        return ResponseEntity.noContent().build();
+    }
+
     @Operation(summary = "Register manager", description = "Special endpoint for registering managers")
     @PostMapping("/register/manager")
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
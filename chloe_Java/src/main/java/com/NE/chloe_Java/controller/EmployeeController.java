@@ -1,17 +1,25 @@
 package com.NE.chloe_Java.controller;
 
 
+import com.NE.chloe_Java.dto.employee.EmployeePageResponse;
 import com.NE.chloe_Java.dto.employee.EmployeeRequest;
 import com.NE.chloe_Java.dto.employee.EmployeeResponse;
+import com.NE.chloe_Java.dto.employee.EmployeeSearchResult;
+import com.NE.chloe_Java.entity.Employee;
+import com.NE.chloe_Java.service.EmployeeImportService;
 import com.NE.chloe_Java.service.EmployeeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -21,18 +29,51 @@ import java.util.List;
 public class EmployeeController {
 
     private final EmployeeService employeeService;
+    private final EmployeeImportService employeeImportService;
 
-    public EmployeeController(EmployeeService employeeService) {
+    public EmployeeController(EmployeeService employeeService, EmployeeImportService employeeImportService) {
         this.employeeService = employeeService;
+        this.employeeImportService = employeeImportService;
     }
 
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
-    @Operation(summary = "Get all employees", description = "Retrieves a list of all active employees")
+    @Operation(summary = "Get all employees", description = "Retrieves a list of all employees")
     public ResponseEntity<List<EmployeeResponse>> getAllEmployees() {
         return ResponseEntity.ok(employeeService.getAllEmployees());
     }
 
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @Operation(summary = "Get employees page", description = "Retrieves a page of employees filtered by status, name prefix and department, using a keyset cursor")
+    public ResponseEntity<EmployeePageResponse> getEmployeePage(
+            @RequestParam(defaultValue = "ACTIVE") Employee.EmployeeStatus status,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(employeeService.getEmployeePage(status, name, department, cursor, size));
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @Operation(summary = "Import employees",
+            description = "Creates employees, and optionally their employments, from a CSV body; rejected rows and a final summary are streamed back as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> importEmployees(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(employeeImportService.importEmployees(request.getInputStream()));
+    }
+
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @Operation(summary = "Search employees", description = "Type-ahead search of active employees by name, email, department or position, tolerating small typos")
+    public ResponseEntity<List<EmployeeSearchResult>> searchEmployees(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(employeeService.searchEmployees(query, limit));
+    }
+
     @GetMapping("/{code}")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or @securityService.isCurrentUser(#code)")
     @Operation(summary = "Get employee by code", description = "Retrieves employee details by their code")
@@ -1,15 +1,21 @@
 package com.NE.chloe_Java.controller;
 
 
+import com.NE.chloe_Java.dto.message.BroadcastRequest;
+import com.NE.chloe_Java.dto.message.MarkReadRequest;
+import com.NE.chloe_Java.dto.message.MessagePageResponse;
 import com.NE.chloe_Java.dto.message.MessageResponse;
 import com.NE.chloe_Java.service.MessageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -22,6 +28,13 @@ public class MessageController {
 
     private final MessageService messageService;
 
+    @PostMapping("/broadcast")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    @Operation(summary = "Broadcast message", description = "Sends a message to a list of employees, a department or every active employee and returns how many were notified")
+    public ResponseEntity<Integer> broadcast(@Valid @RequestBody BroadcastRequest request) {
+        return ResponseEntity.ok(messageService.broadcast(request));
+    }
+
     @GetMapping("/employee/{employeeCode}")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or @securityService.isCurrentUser(#employeeCode)")
     @Operation(summary = "Get employee messages", description = "Retrieves all messages for a specific employee")
@@ -29,6 +42,24 @@ public class MessageController {
         return ResponseEntity.ok(messageService.getEmployeeMessages(employeeCode));
     }
 
+    @GetMapping("/employee/{employeeCode}/page")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or @securityService.isCurrentUser(#employeeCode)")
+    @Operation(summary = "Get employee messages page", description = "Retrieves a page of an employee's messages, newest first, using a keyset cursor")
+    public ResponseEntity<MessagePageResponse> getEmployeeMessagePage(
+            @PathVariable String employeeCode,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(messageService.getMessagePage(employeeCode, cursor, size));
+    }
+
+    @PostMapping("/employee/{employeeCode}/read")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or @securityService.isCurrentUser(#employeeCode)")
+    @Operation(summary = "Mark messages as read", description = "Marks all or the given messages of an employee as read and returns how many were unread")
+    public ResponseEntity<Integer> markMessagesAsRead(@PathVariable String employeeCode,
+                                                      @Valid @RequestBody MarkReadRequest request) {
+        return ResponseEntity.ok(messageService.markAsRead(employeeCode, request));
+    }
+
     @GetMapping("/employee/{employeeCode}/unread")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or @securityService.isCurrentUser(#employeeCode)")
     @Operation(summary = "Get unread messages", description = "Retrieves all unread messages for a specific employee")
@@ -43,6 +74,13 @@ public class MessageController {
         return ResponseEntity.ok(messageService.getUnreadMessageCount(employeeCode));
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream messages",
+            description = "Pushes new messages of the current user as Server-Sent Events; send Last-Event-ID to replay missed ones")
+    public SseEmitter streamMessages(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return messageService.openMessageStream(lastEventId);
+    }
+
     @PostMapping("/{id}/read")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER') or @securityService.isMessageOwner(#id)")
     @Operation(summary = "Mark message as read", description = "Marks a specific message as read")
@@ -1,17 +1,23 @@
 package com.NE.chloe_Java.controller;
 
+import com.NE.chloe_Java.dto.payslip.PayrollRunRequest;
+import com.NE.chloe_Java.dto.payslip.PayrollRunResponse;
+import com.NE.chloe_Java.dto.payslip.PayslipPageResponse;
 import com.NE.chloe_Java.dto.payslip.PayslipRequest;
 import com.NE.chloe_Java.dto.payslip.PayslipResponse;
+import com.NE.chloe_Java.service.PayrollRunService;
 import com.NE.chloe_Java.service.PayslipService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -23,6 +29,7 @@ import java.util.List;
 public class PayslipController {
 
     private final PayslipService payslipService;
+    private final PayrollRunService payrollRunService;
 
     @PostMapping("/generate")
     @PreAuthorize("hasRole('MANAGER')")
@@ -31,6 +38,20 @@ public class PayslipController {
         return ResponseEntity.ok(payslipService.generatePayslip(request));
     }
 
+    @PostMapping("/runs")
+    @PreAuthorize("hasRole('MANAGER')")
+    @Operation(summary = "Start payroll run", description = "Generates payslips for all active employments of a month in the background")
+    public ResponseEntity<PayrollRunResponse> startPayrollRun(@Valid @RequestBody PayrollRunRequest request) {
+        return ResponseEntity.accepted().body(payrollRunService.startRun(request));
+    }
+
+    @GetMapping("/runs/{runId}")
+    @PreAuthorize("hasRole('MANAGER')")
+    @Operation(summary = "Get payroll run", description = "Retrieves the progress and throughput of a payroll run")
+    public ResponseEntity<PayrollRunResponse> getPayrollRun(@PathVariable String runId) {
+        return ResponseEntity.ok(payrollRunService.getRun(runId));
+    }
+
     @PostMapping("/{id}/approve")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Approve payslip", description = "Approves a payslip and marks it as paid")
@@ -45,6 +66,25 @@ public class PayslipController {
         return ResponseEntity.ok(payslipService.getPayslipsByEmployee(employeeCode));
     }
 
+    @GetMapping("/employee/{employeeCode}/page")
+    @PreAuthorize("hasRole('MANAGER') or @securityService.isCurrentUser(#employeeCode)")
+    @Operation(summary = "Get employee payslips page", description = "Retrieves a page of an employee's payslips, newest first, using a keyset cursor")
+    public ResponseEntity<PayslipPageResponse> getPayslipPageByEmployee(
+            @PathVariable String employeeCode,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(payslipService.getPayslipPageByEmployee(employeeCode, cursor, size));
+    }
+
+    @GetMapping(value = "/employee/{employeeCode}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('MANAGER') or @securityService.isCurrentUser(#employeeCode)")
+    @Operation(summary = "Stream employee payslips", description = "Streams all payslips of an employee as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> streamPayslipsByEmployee(@PathVariable String employeeCode) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(payslipService.streamPayslipsByEmployee(employeeCode));
+    }
+
     @GetMapping("/pending")
     @PreAuthorize("hasRole('MANAGER')")
     @Operation(summary = "Get pending payslips", description = "Retrieves all pending payslips for a specific month and year")
@@ -54,10 +94,47 @@ public class PayslipController {
         return ResponseEntity.ok(payslipService.getPayslipsByMonthAndYear(month, year));
     }
 
+    @GetMapping("/pending/page")
+    @PreAuthorize("hasRole('MANAGER')")
+    @Operation(summary = "Get pending payslips page", description = "Retrieves a page of pending payslips for a month and year using a keyset cursor")
+    public ResponseEntity<PayslipPageResponse> getPendingPayslipPage(
+            @RequestParam Integer month,
+            @RequestParam Integer year,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(payslipService.getPendingPayslipPage(month, year, cursor, size));
+    }
+
+    @GetMapping(value = "/pending/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('MANAGER')")
+    @Operation(summary = "Stream pending payslips", description = "Streams all pending payslips for a month and year as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> streamPendingPayslips(
+            @RequestParam Integer month,
+            @RequestParam Integer year) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(payslipService.streamPendingPayslips(month, year));
+    }
+
+    @GetMapping(value = "/export", produces = "application/zip")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    @Operation(summary = "Export payslips", description = "Streams every payslip of a month and year as a ZIP of PDFs")
+    public ResponseEntity<StreamingResponseBody> exportPayslips(
+            @RequestParam Integer month,
+            @RequestParam Integer year) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=payslips-" + month + "-" + year + ".zip")
+                .body(payslipService.exportPayslips(month, year));
+    }
+
     @GetMapping("/{id}/download")
     @PreAuthorize("hasRole('MANAGER') or @securityService.isPayslipOwner(#id)")
     @Operation(summary = "Download payslip", description = "Downloads payslip as PDF")
-    public ResponseEntity<Resource> downloadPayslip(@PathVariable String id) {
-        return payslipService.downloadPayslip(id);
+    public ResponseEntity<?> downloadPayslip(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return payslipService.downloadPayslip(id, ifNoneMatch);
     }
 }
\ No newline at end of file
@@ -13,6 +13,7 @@ import java.util.Set;
 @AllArgsConstructor
 public class AuthResponse {
     private String token;
+    private String refreshToken;
     private String employeeCode;
     private String email;
     private Set<String> roles;
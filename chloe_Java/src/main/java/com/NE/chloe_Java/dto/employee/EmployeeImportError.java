@@ -0,0 +1,17 @@
+package com.NE.chloe_Java.dto.employee;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One rejected row of an employee import, streamed back while the import runs.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeImportError {
+    private long line;
+    private String email;
+    private String error;
+}
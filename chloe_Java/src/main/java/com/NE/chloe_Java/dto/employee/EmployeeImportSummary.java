@@ -0,0 +1,17 @@
+package com.NE.chloe_Java.dto.employee;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Last line of an employee import report.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeImportSummary {
+    private long imported;
+    private long employments;
+    private long failed;
+}
@@ -0,0 +1,19 @@
+package com.NE.chloe_Java.dto.employee;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeSearchResult {
+    private String code;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String department;
+    private String position;
+}
@@ -0,0 +1,12 @@
+package com.NE.chloe_Java.dto.employee;
+
+import com.NE.chloe_Java.entity.Employee;
+
+import java.time.LocalDate;
+
+/**
+ * Projection of the employee columns shown in the directory; roles are loaded separately per page.
+ */
+public record EmployeeSummary(String code, String firstName, String lastName, String email, String mobile,
+                              LocalDate dateOfBirth, Employee.EmployeeStatus status) {
+}
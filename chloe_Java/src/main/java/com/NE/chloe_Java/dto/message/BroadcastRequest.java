@@ -0,0 +1,26 @@
+package com.NE.chloe_Java.dto.message;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BroadcastRequest {
+    @NotBlank(message = "Subject is required")
+    @Size(max = 255, message = "Subject must be at most 255 characters")
+    private String subject;
+
+    @NotBlank(message = "Content is required")
+    @Size(max = 1000, message = "Content must be at most 1000 characters")
+    private String content;
+
+    // Exactly one of employeeCodes, department or allEmployees selects the recipients
+    @Size(max = 10000, message = "At most 10000 employees can be listed; notify a department or everyone instead")
+    private List<String> employeeCodes;
+
+    private String department;
+
+    private boolean allEmployees;
+}
@@ -0,0 +1,15 @@
+package com.NE.chloe_Java.dto.message;
+
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class MarkReadRequest {
+    // Marks every unread message of the employee when true; ids is ignored then
+    private boolean all;
+
+    @Size(max = 1000, message = "At most 1000 messages can be marked at once")
+    private List<String> ids;
+}
@@ -0,0 +1,7 @@
+package com.NE.chloe_Java.dto.message;
+
+/**
+ * Projection of an active employee holding only what is needed to address a notification.
+ */
+public record NotificationRecipient(String employeeCode, String firstName, String lastName) {
+}
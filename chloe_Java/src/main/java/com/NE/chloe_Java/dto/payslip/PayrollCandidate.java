@@ -0,0 +1,10 @@
+package com.NE.chloe_Java.dto.payslip;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of an active employment holding only what a payroll run needs to build a payslip.
+ */
+public record PayrollCandidate(String employmentCode, String employeeCode, String firstName, String lastName,
+                               BigDecimal baseSalary) {
+}
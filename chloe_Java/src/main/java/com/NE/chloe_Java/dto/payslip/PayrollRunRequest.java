@@ -0,0 +1,17 @@
+package com.NE.chloe_Java.dto.payslip;
+
+
+import jakarta.validation.constraints.*;
+import lombok.Data;
+
+@Data
+public class PayrollRunRequest {
+    @NotNull(message = "Month is required")
+    @Min(value = 1, message = "Month must be between 1 and 12")
+    @Max(value = 12, message = "Month must be between 1 and 12")
+    private Integer month;
+
+    @NotNull(message = "Year is required")
+    @Min(value = 2024, message = "Year must be 2024 or later")
+    private Integer year;
+}
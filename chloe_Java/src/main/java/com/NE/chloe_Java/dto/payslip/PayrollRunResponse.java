@@ -0,0 +1,29 @@
+package com.NE.chloe_Java.dto.payslip;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayrollRunResponse {
+    private String runId;
+    private Integer month;
+    private Integer year;
+    private String status;
+    private long totalEmployees;
+    private long processed;
+    private long skipped;
+    private long failed;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long elapsedMillis;
+    private double payslipsPerSecond;
+    private String error;
+}
@@ -0,0 +1,19 @@
+package com.NE.chloe_Java.dto.payslip;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayslipPageResponse {
+    private List<PayslipResponse> items;
+    // Opaque keyset cursor for the next page, null when this is the last page
+    private String nextCursor;
+}
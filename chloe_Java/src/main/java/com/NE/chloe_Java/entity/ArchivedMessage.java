@@ -0,0 +1,46 @@
+package com.NE.chloe_Java.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of a message moved out of the messages table by the retention job.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@Table(name = "message_archive",
+        indexes = @Index(name = "idx_message_archive_employee_created", columnList = "employee_id, created_at, id"))
+public class ArchivedMessage {
+    @Id
+    private String id;
+
+    @Column(name = "employee_id", nullable = false)
+    private String employeeCode;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(length = 1000)
+    private String content;
+
+    @Column(length = 64)
+    private String templateId;
+
+    @Column(length = 500)
+    private String params;
+
+    @Column(nullable = false)
+    private boolean isRead;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column
+    private LocalDateTime readAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -2,6 +2,7 @@ package com.NE.chloe_Java.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.List;
@@ -27,7 +28,9 @@ public class Employee {
     @Column(nullable = false)
     private String password;
 
+    // Roles of employees loaded together are fetched in batches rather than one select each
     @ElementCollection(fetch = FetchType.EAGER)
+    @BatchSize(size = 100)
     @CollectionTable(name = "employee_roles", joinColumns = @JoinColumn(name = "employee_code"))
     @Column(name = "role")
     private Set<String> roles = new HashSet<>();
@@ -46,6 +49,10 @@ public class Employee {
     @Column(nullable = false)
     private EmployeeStatus status = EmployeeStatus.ACTIVE;
 
+    // Embedded in issued tokens; incrementing it revokes them
+    @Column(nullable = false)
+    private long securityVersion;
+
     public enum EmployeeStatus {
         ACTIVE,
         DISABLED
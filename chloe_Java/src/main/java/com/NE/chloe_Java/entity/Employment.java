@@ -8,7 +8,8 @@ import java.time.LocalDate;
 
 @Data
 @Entity
-@Table(name = "employments")
+@Table(name = "employments",
+        indexes = @Index(name = "idx_employments_employee_status", columnList = "employee_id, status"))
 public class Employment {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
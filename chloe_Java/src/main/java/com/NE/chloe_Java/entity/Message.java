@@ -12,7 +12,12 @@ import java.time.LocalDateTime;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "messages")
+@Table(name = "messages",
+        indexes = {
+                @Index(name = "idx_messages_employee_read_created", columnList = "employee_id, is_read, created_at"),
+                @Index(name = "idx_messages_employee_created", columnList = "employee_id, created_at, id"),
+                @Index(name = "idx_messages_created", columnList = "created_at, id")
+        })
 public class Message {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -25,9 +30,15 @@ public class Message {
     @Column(nullable = false)
     private String subject;
 
-    @Column(nullable = false, length = 1000)
+    @Column(length = 1000)
     private String content;
 
+    @Column(length = 64)
+    private String templateId;
+
+    @Column(length = 500)
+    private String params;
+
     @Column(nullable = false)
     private boolean isRead;
 
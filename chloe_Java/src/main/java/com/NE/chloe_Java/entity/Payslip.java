@@ -8,7 +8,10 @@ import java.math.BigDecimal;
 
 @Data
 @Entity
-@Table(name = "payslips")
+@Table(name = "payslips",
+        uniqueConstraints = @UniqueConstraint(name = "uk_payslips_employee_period",
+                columnNames = {"employee_id", "year", "month"}),
+        indexes = @Index(name = "idx_payslips_period_status", columnList = "year, month, status"))
 public class Payslip {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -18,6 +21,16 @@ public class Payslip {
     @JoinColumn(name = "employee_id", nullable = false)
     private Employee employee;
 
+    // Snapshots taken when the payslip is generated, so reads never depend on current employee data
+    @Column(nullable = false)
+    private String employeeName;
+
+    @Column(nullable = false)
+    private BigDecimal baseSalary;
+
+    @Column
+    private Long ruleSetVersion;
+
     @Column(nullable = false)
     private BigDecimal houseAmount;
 
@@ -52,6 +65,10 @@ public class Payslip {
     @Column(nullable = false)
     private PayslipStatus status = PayslipStatus.PENDING;
 
+    // Incremented on every change; identifies the rendered PDF in caches and ETags
+    @Version
+    private Long version;
+
     public enum PayslipStatus {
         PENDING,
         PAID
@@ -0,0 +1,23 @@
+package com.NE.chloe_Java.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "revoked_tokens",
+        indexes = @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at"))
+public class RevokedToken {
+    // The jti claim of the revoked token
+    @Id
+    private String tokenId;
+
+    // Once the token has expired it is rejected anyway and the row can be deleted
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,22 @@
+package com.NE.chloe_Java.repository;
+
+import com.NE.chloe_Java.entity.ArchivedMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ArchivedMessageRepository extends JpaRepository<ArchivedMessage, String> {
+
+    List<ArchivedMessage> findByEmployeeCodeOrderByCreatedAtDescIdDesc(String employeeCode, Pageable pageable);
+
+    @Query("SELECT m FROM ArchivedMessage m WHERE m.employeeCode = :code " +
+            "AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) " +
+            "ORDER BY m.createdAt DESC, m.id DESC")
+    List<ArchivedMessage> findPageAfter(@Param("code") String employeeCode, @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") String id, Pageable pageable);
+}
@@ -0,0 +1,24 @@
+package com.NE.chloe_Java.repository;
+
+import com.NE.chloe_Java.entity.EmailOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, String> {
+
+    // SELECT ... FOR UPDATE SKIP LOCKED (lock timeout -2) so concurrent dispatchers claim disjoint batches
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<EmailOutbox> findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+            EmailOutbox.EmailStatus status, LocalDateTime now, Pageable pageable);
+
+    long countByStatus(EmailOutbox.EmailStatus status);
+}
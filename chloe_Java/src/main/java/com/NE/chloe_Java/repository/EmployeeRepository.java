@@ -2,9 +2,18 @@ package com.NE.chloe_Java.repository;
 
 
 
+import com.NE.chloe_Java.dto.employee.EmployeeSummary;
+import com.NE.chloe_Java.dto.message.NotificationRecipient;
 import com.NE.chloe_Java.entity.Employee;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -13,4 +22,55 @@ public interface EmployeeRepository extends JpaRepository<Employee, String> {
     Optional<Employee> findByCode(String code);
     boolean existsByEmail(String email);
     Optional<Employee> findByCodeAndStatus(String code, Employee.EmployeeStatus status);
+
+    @Query("SELECT e.securityVersion FROM Employee e WHERE e.code = :code AND e.status = :status")
+    Optional<Long> findSecurityVersion(@Param("code") String code, @Param("status") Employee.EmployeeStatus status);
+
+    @Query("SELECT CONCAT(e.firstName, ' ', e.lastName) FROM Employee e WHERE e.code = :code")
+    Optional<String> findFullNameByCode(@Param("code") String code);
+
+    @Query("SELECT new com.NE.chloe_Java.dto.message.NotificationRecipient(e.code, e.firstName, e.lastName) " +
+            "FROM Employee e WHERE e.code IN :codes AND e.status = :status")
+    List<NotificationRecipient> findRecipientsByCodes(@Param("codes") Collection<String> codes,
+                                                      @Param("status") Employee.EmployeeStatus status);
+
+    @Query("SELECT new com.NE.chloe_Java.dto.message.NotificationRecipient(e.code, e.firstName, e.lastName) " +
+            "FROM Employee e WHERE e.status = :status " +
+            "AND EXISTS (SELECT 1 FROM Employment em WHERE em.employee = e AND em.department = :department " +
+            "AND em.status = com.NE.chloe_Java.entity.Employment.EmploymentStatus.ACTIVE)")
+    List<NotificationRecipient> findRecipientsByDepartment(@Param("department") String department,
+                                                           @Param("status") Employee.EmployeeStatus status);
+
+    @Query("SELECT new com.NE.chloe_Java.dto.message.NotificationRecipient(e.code, e.firstName, e.lastName) " +
+            "FROM Employee e WHERE e.status = :status")
+    List<NotificationRecipient> findRecipientsByStatus(@Param("status") Employee.EmployeeStatus status);
+
+    /**
+     * One keyset page of the employee directory. Null filters are ignored; the name filter is a
+     * prefix of the first or last name so it can use their indexes.
+     */
+    @Query("SELECT new com.NE.chloe_Java.dto.employee.EmployeeSummary(e.code, e.firstName, e.lastName, e.email, " +
+            "e.mobile, e.dateOfBirth, e.status) " +
+            "FROM Employee e WHERE e.status = :status " +
+            "AND (:after IS NULL OR e.code > :after) " +
+            "AND (:namePrefix IS NULL OR e.firstName LIKE :namePrefix ESCAPE '!' OR e.lastName LIKE :namePrefix ESCAPE '!') " +
+            "AND (:department IS NULL OR EXISTS (SELECT 1 FROM Employment em WHERE em.employee = e " +
+            "AND em.department = :department " +
+            "AND em.status = com.NE.chloe_Java.entity.Employment.EmploymentStatus.ACTIVE)) " +
+            "ORDER BY e.code")
+    List<EmployeeSummary> findDirectoryPage(@Param("status") Employee.EmployeeStatus status,
+                                            @Param("namePrefix") String namePrefix,
+                                            @Param("department") String department,
+                                            @Param("after") String after,
+                                            Pageable pageable);
+
+    // Roles of a whole page in one query, as (employee code, role) pairs
+    @Query("SELECT e.code, r FROM Employee e JOIN e.roles r WHERE e.code IN :codes")
+    List<Object[]> findRolesByCodes(@Param("codes") Collection<String> codes);
+
+    // Rehashing a password is not a credential change, so the security version is left untouched
+    @Transactional
+    @Modifying
+    @Query("UPDATE Employee e SET e.password = :password WHERE e.code = :code")
+    int updatePassword(@Param("code") String code, @Param("password") String password);
 }
\ No newline at end of file
@@ -1,8 +1,13 @@
 package com.NE.chloe_Java.repository;
 
 
+import com.NE.chloe_Java.dto.payslip.PayrollCandidate;
+import com.NE.chloe_Java.entity.Employee;
 import com.NE.chloe_Java.entity.Employment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -13,4 +18,18 @@ public interface EmploymentRepository extends JpaRepository<Employment, String>
     Optional<Employment> findByEmployeeCodeAndStatusAndDepartment(String employeeCode,
                                                                   Employment.EmploymentStatus status, String department);
     List<Employment> findByStatus(Employment.EmploymentStatus status);
-}
\ No newline at end of file
+
+    // Keyset page of payroll candidates ordered by employment code; pass a null code for the first page
+    @Query("select new com.NE.chloe_Java.dto.payslip.PayrollCandidate(e.code, e.employee.code, " +
+            "e.employee.firstName, e.employee.lastName, e.baseSalary) " +
+            "from Employment e where e.status = :status and e.employee.status = :employeeStatus " +
+            "and (:afterCode is null or e.code > :afterCode) order by e.code")
+    List<PayrollCandidate> findPayrollCandidates(@Param("status") Employment.EmploymentStatus status,
+                                                 @Param("employeeStatus") Employee.EmployeeStatus employeeStatus,
+                                                 @Param("afterCode") String afterCode,
+                                                 Pageable pageable);
+
+    long countByStatusAndEmployeeStatus(Employment.EmploymentStatus status, Employee.EmployeeStatus employeeStatus);
+
+    boolean existsByEmployeeCodeAndDepartment(String employeeCode, String department);
+}
@@ -1,8 +1,14 @@
 package com.NE.chloe_Java.repository;
 
 import com.NE.chloe_Java.entity.Message;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -10,4 +16,35 @@ public interface MessageRepository extends JpaRepository<Message, String> {
     List<Message> findByEmployeeCodeOrderByCreatedAtDesc(String employeeCode);
     List<Message> findByEmployeeCodeAndIsReadOrderByCreatedAtDesc(String employeeCode, boolean isRead);
     long countByEmployeeCodeAndIsRead(String employeeCode, boolean isRead);
+    boolean existsByIdAndEmployeeCode(String id, String employeeCode);
+
+    @Query("SELECT m FROM Message m WHERE m.employee.code = :code " +
+            "AND (m.createdAt > :createdAt OR (m.createdAt = :createdAt AND m.id > :id)) " +
+            "ORDER BY m.createdAt ASC, m.id ASC")
+    List<Message> findMessagesAfter(@Param("code") String employeeCode, @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") String id, Pageable pageable);
+
+    List<Message> findByEmployeeCodeOrderByCreatedAtDescIdDesc(String employeeCode, Pageable pageable);
+
+    @Query("SELECT m FROM Message m WHERE m.employee.code = :code " +
+            "AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) " +
+            "ORDER BY m.createdAt DESC, m.id DESC")
+    List<Message> findInboxPageAfter(@Param("code") String employeeCode, @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") String id, Pageable pageable);
+
+    // Returns 0 when the message was already read
+    @Modifying
+    @Query("UPDATE Message m SET m.isRead = true, m.readAt = :readAt WHERE m.id = :id AND m.isRead = false")
+    int markAsRead(@Param("id") String id, @Param("readAt") LocalDateTime readAt);
+
+    @Modifying
+    @Query("UPDATE Message m SET m.isRead = true, m.readAt = :readAt " +
+            "WHERE m.employee.code = :code AND m.isRead = false")
+    int markAllAsRead(@Param("code") String employeeCode, @Param("readAt") LocalDateTime readAt);
+
+    @Modifying
+    @Query("UPDATE Message m SET m.isRead = true, m.readAt = :readAt " +
+            "WHERE m.employee.code = :code AND m.id IN :ids AND m.isRead = false")
+    int markAsRead(@Param("code") String employeeCode, @Param("ids") Collection<String> ids,
+                   @Param("readAt") LocalDateTime readAt);
 }
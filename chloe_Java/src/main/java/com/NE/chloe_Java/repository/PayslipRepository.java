@@ -1,10 +1,19 @@
 package com.NE.chloe_Java.repository;
 
 import com.NE.chloe_Java.entity.Payslip;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface PayslipRepository extends JpaRepository<Payslip, String> {
@@ -13,5 +22,49 @@ public interface PayslipRepository extends JpaRepository<Payslip, String> {
     Optional<Payslip> findByEmployeeCodeAndMonthAndYearAndStatus(String employeeCode,
                                                                  Integer month, Integer year, Payslip.PayslipStatus status);
     boolean existsByEmployeeCodeAndMonthAndYear(String employeeCode, Integer month, Integer year);
+
+    boolean existsByIdAndEmployeeCode(String id, String employeeCode);
+
+    List<Payslip> findByEmployeeCodeOrderByYearDescMonthDesc(String employeeCode);
+
+    // Keyset pages: an employee's payslips newest first, pending payslips of a month by id
+    List<Payslip> findByEmployeeCodeOrderByYearDescMonthDescIdDesc(String employeeCode, Pageable pageable);
+
+    @Query("select p from Payslip p where p.employee.code = :employeeCode and " +
+            "(p.year < :year or (p.year = :year and (p.month < :month or (p.month = :month and p.id < :id)))) " +
+            "order by p.year desc, p.month desc, p.id desc")
+    List<Payslip> findEmployeePageAfter(@Param("employeeCode") String employeeCode, @Param("year") Integer year,
+                                        @Param("month") Integer month, @Param("id") String id, Pageable pageable);
+
+    List<Payslip> findByMonthAndYearAndStatusOrderByIdAsc(Integer month, Integer year,
+                                                          Payslip.PayslipStatus status, Pageable pageable);
+
+    List<Payslip> findByMonthAndYearAndStatusAndIdGreaterThanOrderByIdAsc(Integer month, Integer year,
+                                                                          Payslip.PayslipStatus status, String id,
+                                                                          Pageable pageable);
+
+    // Streams must be consumed inside a transaction; the fetch size keeps the driver from buffering every row
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Payslip> streamByEmployeeCodeOrderByYearDescMonthDescIdDesc(String employeeCode);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Payslip> streamByMonthAndYearAndStatusOrderByIdAsc(Integer month, Integer year,
+                                                              Payslip.PayslipStatus status);
+
+    // Exports read the ids of a period up front, then load the rows in batches
+    @Query("select p.id from Payslip p where p.month = :month and p.year = :year order by p.id")
+    List<String> findIdsByMonthAndYear(@Param("month") Integer month, @Param("year") Integer year);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Payslip> findByIdInOrderByIdAsc(Collection<String> ids);
+
+    @Query("select p.employee.code from Payslip p where p.month = :month and p.year = :year")
+    Set<String> findEmployeeCodesByMonthAndYear(@Param("month") Integer month, @Param("year") Integer year);
 }
 
@@ -0,0 +1,25 @@
+package com.NE.chloe_Java.security;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Authenticated employee rebuilt from the claims of a verified token, so serving a request
+ * does not need to load the employee from the database.
+ */
+public record EmployeePrincipal(String code, String email, Set<String> roles) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public List<SimpleGrantedAuthority> authorities() {
+        return roles.stream()
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+    }
+}
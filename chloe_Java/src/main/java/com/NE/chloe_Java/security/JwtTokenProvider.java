@@ -2,80 +2,136 @@ package com.NE.chloe_Java.security;
 
 import java.util.Date;
 
+import com.NE.chloe_Java.entity.Employee;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
 public class JwtTokenProvider {
 
+    public static final String CLAIM_ROLES = "roles";
+    public static final String CLAIM_EMPLOYEE_CODE = "code";
+    public static final String CLAIM_SECURITY_VERSION = "sv";
+    public static final String CLAIM_TOKEN_TYPE = "typ";
+    public static final String TOKEN_TYPE_REFRESH = "refresh";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64URL.decode(jwtSecret));
+    @Value("${jwt.refresh-expiration}")
+    private long refreshExpiration;
+
+    // Decoded and built once; both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64URL.decode(jwtSecret));
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
-    public String generateToken(Authentication authentication) {
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+    public String generateToken(Employee employee) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
-        String roles = userDetails.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
+        String roles = employee.getRoles().stream()
                 .map(role -> role.replace("ROLE_ROLE_", "ROLE_")) // Remove duplicate prefix
                 .collect(Collectors.joining(","));
 
 
         return Jwts.builder()
-                .subject(userDetails.getUsername())
+                .id(UUID.randomUUID().toString())
+                .subject(employee.getEmail())
                 .issuedAt(now)
-                .claim("roles", roles)
+                .claim(CLAIM_ROLES, roles)
+                .claim(CLAIM_EMPLOYEE_CODE, employee.getCode())
+                .claim(CLAIM_SECURITY_VERSION, employee.getSecurityVersion())
                 .expiration(expiryDate)
-                .signWith(getSigningKey(), Jwts.SIG.HS256)
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Issues a long-lived token that can only be exchanged for a new token pair at /api/v1/auth/refresh.
+     * It carries no roles, so it is never accepted as an access token.
+     */
+    public String generateRefreshToken(Employee employee) {
+        Date now = new Date();
+        Date expiryDate = new Date(now.getTime() + refreshExpiration);
 
-        return claims.getSubject();
-    }
-    public String getRolesFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getBody();
-
-        return claims.get("roles", String.class);
+        return Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject(employee.getEmail())
+                .issuedAt(now)
+                .claim(CLAIM_TOKEN_TYPE, TOKEN_TYPE_REFRESH)
+                .claim(CLAIM_EMPLOYEE_CODE, employee.getCode())
+                .claim(CLAIM_SECURITY_VERSION, employee.getSecurityVersion())
+                .expiration(expiryDate)
+                .signWith(signingKey, Jwts.SIG.HS256)
+                .compact();
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Verifies the signature and expiry of the token and returns its claims,
+     * or null if the token is invalid. Callers should read everything they need from the result
+     * instead of parsing the token again.
+     */
+    public Claims parseToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            return jwtParser.parseSignedClaims(token).getPayload();
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return null;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Builds the request principal from verified claims, or returns null for refresh tokens and
+     * tokens issued without the employee claims.
+     */
+    public EmployeePrincipal toPrincipal(Claims claims) {
+        String employeeCode = claims.get(CLAIM_EMPLOYEE_CODE, String.class);
+        String roles = claims.get(CLAIM_ROLES, String.class);
+        if (employeeCode == null || roles == null || isRefreshToken(claims)) {
+            return null;
+        }
+
+        Set<String> roleSet = Arrays.stream(roles.split(","))
+                .filter(role -> !role.isBlank())
+                .collect(Collectors.toUnmodifiableSet());
+        return new EmployeePrincipal(employeeCode, claims.getSubject(), roleSet);
+    }
+
+    public boolean isRefreshToken(Claims claims) {
+        return TOKEN_TYPE_REFRESH.equals(claims.get(CLAIM_TOKEN_TYPE, String.class));
+    }
+
+    public String getEmployeeCode(Claims claims) {
+        return claims.get(CLAIM_EMPLOYEE_CODE, String.class);
+    }
+
+    public long getSecurityVersion(Claims claims) {
+        Long version = claims.get(CLAIM_SECURITY_VERSION, Long.class);
+        return version != null ? version : -1L;
+    }
+
+    public boolean validateToken(String token) {
+        return parseToken(token) != null;
+    }
+}
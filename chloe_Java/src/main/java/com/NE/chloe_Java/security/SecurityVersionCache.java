@@ -0,0 +1,68 @@
+package com.NE.chloe_Java.security;
+
+import com.NE.chloe_Java.entity.Employee;
+import com.NE.chloe_Java.repository.EmployeeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory view of each employee's security version. A token is only accepted while the version
+ * it was issued with is still current; disabling an employee or changing their credentials bumps
+ * the version and thereby revokes every token issued before.
+ * Entries are refreshed after a short TTL so changes made by other instances are picked up too.
+ */
+@Component
+@RequiredArgsConstructor
+public class SecurityVersionCache {
+
+    // Version of employees that are disabled or no longer exist; never matches a token
+    private static final long REVOKED = -1L;
+
+    private final EmployeeRepository employeeRepository;
+
+    @Value("${security.version-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private final Map<String, Entry> versions = new ConcurrentHashMap<>();
+
+    public boolean isCurrent(String employeeCode, long tokenVersion) {
+        long now = System.nanoTime();
+        Entry entry = versions.get(employeeCode);
+        if (entry == null || now - entry.loadedAt > TimeUnit.SECONDS.toNanos(ttlSeconds)) {
+            entry = new Entry(load(employeeCode), now);
+            versions.put(employeeCode, entry);
+        }
+        return entry.version == tokenVersion;
+    }
+
+    /**
+     * Drops the cached version of an employee once the current transaction commits.
+     */
+    public void invalidateAfterCommit(String employeeCode) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versions.remove(employeeCode);
+                }
+            });
+        } else {
+            versions.remove(employeeCode);
+        }
+    }
+
+    private long load(String employeeCode) {
+        return employeeRepository.findSecurityVersion(employeeCode, Employee.EmployeeStatus.ACTIVE)
+                .orElse(REVOKED);
+    }
+
+    private record Entry(long version, long loadedAt) {
+    }
+}
@@ -0,0 +1,91 @@
+package com.NE.chloe_Java.security;
+
+import com.NE.chloe_Java.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Tracks revoked tokens by their jti. The revoked_tokens table is the source of truth; a Bloom
+ * filter of its rows answers the per-request check in memory, and only a possible hit is
+ * confirmed against the table. The filter is rebuilt periodically, which also picks up
+ * revocations made by other instances and forgets expired tokens.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationService {
+
+    private static final String INSERT_REVOKED_TOKEN_SQL =
+            "INSERT INTO revoked_tokens (token_id, expires_at) VALUES (?, ?)";
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${auth.revocation.expected-tokens:100000}")
+    private long expectedTokens;
+
+    @Value("${auth.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // The previous generation is kept so a token revoked while a reload reads the table is not lost
+    private volatile Filters filters;
+
+    @PostConstruct
+    void load() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${auth.revocation.reload-interval-ms:60000}",
+            initialDelayString = "${auth.revocation.reload-interval-ms:60000}")
+    public void reload() {
+        LocalDateTime now = LocalDateTime.now();
+        revokedTokenRepository.deleteExpired(now);
+
+        List<String> tokenIds = revokedTokenRepository.findUnexpiredTokenIds(now);
+        BloomFilter filter = new BloomFilter(Math.max(expectedTokens, tokenIds.size() * 2L), falsePositiveRate);
+        tokenIds.forEach(filter::add);
+
+        Filters current = filters;
+        filters = new Filters(filter, current != null ? current.current() : null);
+        log.debug("Loaded {} revoked tokens", tokenIds.size());
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !filters.mightContain(tokenId)) {
+            return false;
+        }
+        return revokedTokenRepository.existsById(tokenId);
+    }
+
+    /**
+     * Revokes a token until it expires. Returns false if it had already been revoked,
+     * which lets callers detect a refresh token being used twice.
+     */
+    public boolean revoke(String tokenId, Date expiresAt) {
+        filters.current().add(tokenId);
+        try {
+            jdbcTemplate.update(INSERT_REVOKED_TOKEN_SQL, tokenId, new Timestamp(expiresAt.getTime()));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    private record Filters(BloomFilter current, BloomFilter previous) {
+
+        boolean mightContain(String tokenId) {
+            return current.mightContain(tokenId) || (previous != null && previous.mightContain(tokenId));
+        }
+    }
+}
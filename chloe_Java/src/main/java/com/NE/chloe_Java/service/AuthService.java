@@ -2,23 +2,27 @@ package com.NE.chloe_Java.service;
 
 import com.NE.chloe_Java.dto.auth.AuthResponse;
 import com.NE.chloe_Java.dto.auth.LoginRequest;
+import com.NE.chloe_Java.dto.auth.RefreshTokenRequest;
 import com.NE.chloe_Java.dto.auth.RegisterRequest;
 import com.NE.chloe_Java.dto.employee.EmployeeRequest;
 import com.NE.chloe_Java.entity.Employee;
 import com.NE.chloe_Java.entity.EmployeeRole;
-import com.NE.chloe_Java.exception.ResourceNotFoundException;
 import com.NE.chloe_Java.repository.EmployeeRepository;
 import com.NE.chloe_Java.security.JwtTokenProvider;
+import com.NE.chloe_Java.security.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.flogger.Flogger;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
@@ -27,7 +31,21 @@ public class AuthService {
     private final EmployeeRepository employeeRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider tokenProvider;
-    private final AuthenticationManager authenticationManager;
+    private final PasswordHashingService passwordHashingService;
+    private final TokenRevocationService tokenRevocationService;
+    private final EmployeeSearchIndex employeeSearchIndex;
+    private final MeterRegistry meterRegistry;
+
+    private Timer loginLatency;
+
+    @PostConstruct
+    void registerMetrics() {
+        loginLatency = Timer.builder("auth.login.latency")
+                .description("Time taken to handle a login, including waiting for the hashing pool")
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
     @Transactional
     public AuthResponse register(EmployeeRequest request) {
@@ -63,6 +81,7 @@ public class AuthService {
         employee.setStatus(Employee.EmployeeStatus.ACTIVE);
 
         Employee savedEmployee = employeeRepository.save(employee);
+        employeeSearchIndex.refreshAfterCommit(savedEmployee.getCode());
 
         return AuthResponse.builder()
                 .employeeCode(savedEmployee.getCode())
@@ -73,35 +92,78 @@ public class AuthService {
     }
 
 
-@Transactional(readOnly = true)
-    public AuthResponse login(LoginRequest request) {
-        try {
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-            );
+    /**
+     * Looks the employee up once and checks the password on the bounded hashing pool,
+     * upgrading the stored hash when the configured work factor has been raised.
+     */
+    public CompletableFuture<AuthResponse> login(LoginRequest request) {
+        long start = System.nanoTime();
+        Optional<Employee> found = employeeRepository.findByEmail(request.getEmail());
+
+        return passwordHashingService.verify(request.getPassword(), found.map(Employee::getPassword).orElse(null))
+                .thenApply(check -> {
+                    Employee employee = found
+                            .filter(e -> check.matches())
+                            .filter(e -> e.getStatus() == Employee.EmployeeStatus.ACTIVE)
+                            .orElseThrow(() -> new IllegalArgumentException("Invalid email or password"));
+
+                    if (check.upgradedHash() != null) {
+                        employeeRepository.updatePassword(employee.getCode(), check.upgradedHash());
+                    }
+
+                    return issueTokens(employee, "Login successful");
+                })
+                .whenComplete((response, error) ->
+                        loginLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
 
-            Employee employee = employeeRepository.findByEmail(request.getEmail())
-                    .orElseThrow(() -> new ResourceNotFoundException("Employee not found"));
+    /**
+     * Exchanges a refresh token for a new access and refresh token pair. Refresh tokens are
+     * rotated: the presented one is revoked, so it cannot be used a second time.
+     */
+    @Transactional
+    public AuthResponse refresh(RefreshTokenRequest request) {
+        Claims claims = tokenProvider.parseToken(request.getRefreshToken());
+        if (claims == null || !tokenProvider.isRefreshToken(claims)) {
+            throw new IllegalArgumentException("Invalid refresh token");
+        }
 
-            if (employee.getStatus() != Employee.EmployeeStatus.ACTIVE) {
-                throw new IllegalStateException("Account is not active");
-            }
+        Employee employee = employeeRepository.findByCodeAndStatus(
+                        tokenProvider.getEmployeeCode(claims), Employee.EmployeeStatus.ACTIVE)
+                .filter(e -> e.getSecurityVersion() == tokenProvider.getSecurityVersion(claims))
+                .orElseThrow(() -> new IllegalArgumentException("Invalid refresh token"));
 
-            String token = tokenProvider.generateToken(authentication);
+        if (!tokenRevocationService.revoke(claims.getId(), claims.getExpiration())) {
+            throw new IllegalArgumentException("Refresh token has already been used");
+        }
 
-            return AuthResponse.builder()
-                    .token(token)
-                    .employeeCode(employee.getCode())
-                    .email(employee.getEmail())
-                    .roles(employee.getRoles())
-                    .message("Login successful")
-                    .build();
+        return issueTokens(employee, "Token refreshed");
+    }
 
-        } catch (Exception e) {
-            throw new IllegalArgumentException("Invalid email or password");
+    /**
+     * Revokes the given access and refresh tokens; either may be null.
+     */
+    @Transactional
+    public void logout(String accessToken, String refreshToken) {
+        for (String token : new String[]{accessToken, refreshToken}) {
+            Claims claims = token != null ? tokenProvider.parseToken(token) : null;
+            if (claims != null && claims.getId() != null) {
+                tokenRevocationService.revoke(claims.getId(), claims.getExpiration());
+            }
         }
     }
 
+    private AuthResponse issueTokens(Employee employee, String message) {
+        return AuthResponse.builder()
+                .token(tokenProvider.generateToken(employee))
+                .refreshToken(tokenProvider.generateRefreshToken(employee))
+                .employeeCode(employee.getCode())
+                .email(employee.getEmail())
+                .roles(employee.getRoles())
+                .message(message)
+                .build();
+    }
+
     @Transactional(readOnly = true)
     public boolean validateToken(String token) {
         return tokenProvider.validateToken(token);
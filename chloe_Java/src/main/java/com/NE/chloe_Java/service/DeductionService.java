@@ -17,6 +17,7 @@ import java.util.stream.Collectors;
 public class DeductionService {
 
     private final DeductionRepository deductionRepository;
+    private final PayslipCalculator payslipCalculator;
 
     @Transactional
     public DeductionResponse createDeduction(DeductionRequest request) {
@@ -29,6 +30,7 @@ public class DeductionService {
         deduction.setPercentage(request.getPercentage());
 
         Deduction savedDeduction = deductionRepository.save(deduction);
+        payslipCalculator.reloadAfterCommit();
         return mapToResponse(savedDeduction);
     }
 
@@ -63,6 +65,7 @@ public class DeductionService {
         deduction.setPercentage(request.getPercentage());
 
         Deduction updatedDeduction = deductionRepository.save(deduction);
+        payslipCalculator.reloadAfterCommit();
         return mapToResponse(updatedDeduction);
     }
 
@@ -71,6 +74,7 @@ public class DeductionService {
         Deduction deduction = deductionRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Deduction not found with id: " + id));
         deductionRepository.delete(deduction);
+        payslipCalculator.reloadAfterCommit();
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,204 @@
+package com.NE.chloe_Java.service;
+
+import com.NE.chloe_Java.entity.EmailOutbox;
+import com.NE.chloe_Java.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the email outbox in the background. Due rows are claimed in short transactions,
+ * sent as one batch over a single SMTP connection outside of any transaction, and then marked
+ * sent or rescheduled with exponential backoff until they run out of attempts.
+ * <p>
+ * Delivery is at-least-once. A claim leases its rows for {@code email.outbox.lease-seconds}, which
+ * must outlast the worst-case SMTP send of a full batch so no other instance reclaims them mid-send.
+ * If the process dies after the server accepted a message but before the row is marked sent, the
+ * lease expires and the email is sent again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailService emailService;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${email.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${email.outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${email.outbox.backoff-seconds:30}")
+    private long backoffSeconds;
+
+    @Value("${email.outbox.lease-seconds:600}")
+    private long leaseSeconds;
+
+    @Value("${spring.mail.properties.mail.smtp.connectiontimeout:0}")
+    private long connectionTimeoutMs;
+
+    @Value("${spring.mail.properties.mail.smtp.timeout:0}")
+    private long readTimeoutMs;
+
+    @Value("${spring.mail.properties.mail.smtp.writetimeout:0}")
+    private long writeTimeoutMs;
+
+    private final AtomicLong queueDepth = new AtomicLong();
+    private Timer sendLatency;
+    private Counter sentCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    void checkLease() {
+        if (connectionTimeoutMs <= 0 || readTimeoutMs <= 0 || writeTimeoutMs <= 0) {
+            throw new IllegalStateException("SMTP connection, read and write timeouts must be set: " +
+                    "without them a send can outlive the outbox lease and emails are delivered twice");
+        }
+        // One connection per batch, then at worst every message waits out a read or write timeout
+        long worstCaseSendMs = connectionTimeoutMs + batchSize * Math.max(readTimeoutMs, writeTimeoutMs);
+        if (TimeUnit.SECONDS.toMillis(leaseSeconds) <= worstCaseSendMs) {
+            throw new IllegalStateException("email.outbox.lease-seconds (" + leaseSeconds + ") must exceed the " +
+                    "worst-case send time of a batch of " + batchSize + " emails (" + worstCaseSendMs + " ms)");
+        }
+    }
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("email.outbox.queue.depth", queueDepth, AtomicLong::get)
+                .description("Pending emails in the outbox")
+                .register(meterRegistry);
+        sendLatency = Timer.builder("email.outbox.send.latency")
+                .description("Time taken to send one batch of emails")
+                .register(meterRegistry);
+        sentCounter = Counter.builder("email.outbox.sent").register(meterRegistry);
+        failedCounter = Counter.builder("email.outbox.failed").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:5000}")
+    public void dispatch() {
+        try {
+            List<EmailOutbox> batch;
+            do {
+                batch = claimBatch();
+                if (!batch.isEmpty()) {
+                    sendBatch(batch);
+                }
+            } while (batch.size() == batchSize);
+
+            queueDepth.set(emailOutboxRepository.countByStatus(EmailOutbox.EmailStatus.PENDING));
+        } catch (Exception e) {
+            log.error("Email outbox dispatch failed: {}", e.getMessage());
+        }
+    }
+
+    private List<EmailOutbox> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<EmailOutbox> due = emailOutboxRepository
+                    .findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+                            EmailOutbox.EmailStatus.PENDING, now, PageRequest.of(0, batchSize));
+
+            // Lease the rows so no other dispatcher picks them up while they are being sent
+            due.forEach(entry -> entry.setNextAttemptAt(now.plusSeconds(leaseSeconds)));
+            return due;
+        });
+    }
+
+    private void sendBatch(List<EmailOutbox> batch) {
+        Map<MimeMessage, EmailOutbox> messages = new LinkedHashMap<>();
+        Map<String, String> errors = new HashMap<>();
+
+        for (EmailOutbox entry : batch) {
+            try {
+                messages.put(emailService.createMessage(entry.getRecipient(), entry.getSubject(), entry.getContent()),
+                        entry);
+            } catch (MessagingException e) {
+                errors.put(entry.getId(), e.getMessage());
+            }
+        }
+
+        if (!messages.isEmpty()) {
+            long start = System.nanoTime();
+            try {
+                // A multi-message send reuses one connection for the whole batch
+                mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                if (e.getFailedMessages().isEmpty()) {
+                    messages.values().forEach(entry -> errors.put(entry.getId(), e.getMessage()));
+                }
+                e.getFailedMessages().forEach((message, error) -> {
+                    EmailOutbox entry = messages.get(message);
+                    if (entry != null) {
+                        errors.put(entry.getId(), error.getMessage());
+                    }
+                });
+            } catch (MailException e) {
+                messages.values().forEach(entry -> errors.put(entry.getId(), e.getMessage()));
+            }
+            sendLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (EmailOutbox entry : batch) {
+            if (errors.containsKey(entry.getId())) {
+                scheduleRetry(entry, errors.get(entry.getId()), now);
+            } else {
+                entry.setStatus(EmailOutbox.EmailStatus.SENT);
+                entry.setSentAt(now);
+                entry.setAttempts(entry.getAttempts() + 1);
+                entry.setLastError(null);
+                sentCounter.increment();
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> emailOutboxRepository.saveAll(batch));
+    }
+
+    private void scheduleRetry(EmailOutbox entry, String error, LocalDateTime now) {
+        int attempts = entry.getAttempts() + 1;
+        entry.setAttempts(attempts);
+        entry.setLastError(error != null && error.length() > MAX_ERROR_LENGTH
+                ? error.substring(0, MAX_ERROR_LENGTH) : error);
+
+        if (attempts >= maxAttempts) {
+            entry.setStatus(EmailOutbox.EmailStatus.FAILED);
+            failedCounter.increment();
+            log.error("Giving up on email {} to {} after {} attempts: {}",
+                    entry.getId(), entry.getRecipient(), attempts, error);
+        } else {
+            long delay = backoffSeconds << Math.min(attempts - 1, 16);
+            entry.setNextAttemptAt(now.plusSeconds(delay));
+            log.warn("Email {} to {} failed (attempt {}), retrying in {} s: {}",
+                    entry.getId(), entry.getRecipient(), attempts, delay, error);
+        }
+    }
+}
@@ -1,19 +1,27 @@
 package com.NE.chloe_Java.service;
 
+import com.NE.chloe_Java.entity.EmailOutbox;
+import com.NE.chloe_Java.repository.EmailOutboxRepository;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class EmailService {
 
     private final JavaMailSender mailSender;
+    private final EmailOutboxRepository emailOutboxRepository;
 
     public void sendEmail(String to, String subject, String content) throws MessagingException {
+        mailSender.send(createMessage(to, subject, content));
+    }
+
+    public MimeMessage createMessage(String to, String subject, String content) throws MessagingException {
         MimeMessage message = mailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(message, true);
 
@@ -21,7 +29,20 @@ public class EmailService {
         helper.setSubject(subject);
         helper.setText(content, true); // true enables HTML content
 
-        mailSender.send(message);
+        return message;
+    }
+
+    /**
+     * Queues an email in the outbox as part of the caller's transaction. Nothing is sent here;
+     * EmailOutboxDispatcher delivers it once the transaction has committed.
+     */
+    @Transactional
+    public void enqueueEmail(String to, String subject, String content) {
+        emailOutboxRepository.save(EmailOutbox.builder()
+                .recipient(to)
+                .subject(subject)
+                .content(content)
+                .build());
     }
 
     public void sendPayslipNotification(String employeeEmail, String firstName, String month,
@@ -44,4 +65,4 @@ public class EmailService {
             throw new RuntimeException("Failed to send email notification", e);
         }
     }
-}
\ No newline at end of file
+}
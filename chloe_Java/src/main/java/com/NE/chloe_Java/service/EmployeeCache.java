@@ -0,0 +1,132 @@
+package com.NE.chloe_Java.service;
+
+import com.NE.chloe_Java.entity.Employee;
+import com.NE.chloe_Java.entity.Employment;
+import com.NE.chloe_Java.repository.EmployeeRepository;
+import com.NE.chloe_Java.repository.EmploymentRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Read-through cache of active employees and their active employment, keyed by employee code.
+ * Entries are immutable snapshots rather than entities, so they can be shared between requests;
+ * code that needs to attach an employee to a new entity uses a reference instead.
+ * <p>
+ * Writes made through the services invalidate the affected employee after commit; the TTL
+ * bounds how long changes made by other instances can go unnoticed. Absent employees are
+ * cached too, so repeated lookups of unknown codes do not reach the database.
+ */
+@Component
+@RequiredArgsConstructor
+public class EmployeeCache {
+
+    private final EmployeeRepository employeeRepository;
+    private final EmploymentRepository employmentRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${employees.cache.max-size:20000}")
+    private long maxSize;
+
+    @Value("${employees.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private Cache<String, Optional<CachedEmployee>> employees;
+    private Cache<String, Optional<CachedEmployment>> employments;
+
+    @PostConstruct
+    void createCaches() {
+        employees = createCache("employees");
+        employments = createCache("activeEmployments");
+    }
+
+    private <V> Cache<String, V> createCache(String name) {
+        Cache<String, V> cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        // Publishes cache.gets (hit/miss), cache.evictions and cache.size tagged with the cache name
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .tag("cache", name)
+                .description("Share of lookups served from the cache")
+                .register(meterRegistry);
+        return cache;
+    }
+
+    public Optional<CachedEmployee> findActiveEmployee(String employeeCode) {
+        return employees.get(employeeCode, code -> employeeRepository
+                .findByCodeAndStatus(code, Employee.EmployeeStatus.ACTIVE)
+                .map(CachedEmployee::of));
+    }
+
+    public Optional<CachedEmployment> findActiveEmployment(String employeeCode) {
+        return employments.get(employeeCode, code -> employmentRepository
+                .findByEmployeeCodeAndStatus(code, Employment.EmploymentStatus.ACTIVE)
+                .stream()
+                .findFirst()
+                .map(CachedEmployment::of));
+    }
+
+    /**
+     * Drops the cached employee and employment once the current transaction commits.
+     */
+    public void invalidateAfterCommit(String employeeCode) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(employeeCode);
+                }
+            });
+        } else {
+            invalidate(employeeCode);
+        }
+    }
+
+    private void invalidate(String employeeCode) {
+        employees.invalidate(employeeCode);
+        employments.invalidate(employeeCode);
+    }
+
+    public record CachedEmployee(String code, String firstName, String lastName, String email, String mobile,
+                                 LocalDate dateOfBirth, Set<String> roles, Employee.EmployeeStatus status) {
+
+        static CachedEmployee of(Employee employee) {
+            return new CachedEmployee(employee.getCode(), employee.getFirstName(), employee.getLastName(),
+                    employee.getEmail(), employee.getMobile(), employee.getDateOfBirth(),
+                    Set.copyOf(employee.getRoles()), employee.getStatus());
+        }
+
+        public String fullName() {
+            return firstName + " " + lastName;
+        }
+    }
+
+    public record CachedEmployment(String code, String employeeCode, String department, String position,
+                                   BigDecimal baseSalary, Employment.EmploymentStatus status,
+                                   LocalDate joiningDate) {
+
+        static CachedEmployment of(Employment employment) {
+            // Reading the id of the lazy employee does not initialize it
+            return new CachedEmployment(employment.getCode(), employment.getEmployee().getCode(),
+                    employment.getDepartment(), employment.getPosition(), employment.getBaseSalary(),
+                    employment.getStatus(), employment.getJoiningDate());
+        }
+    }
+}
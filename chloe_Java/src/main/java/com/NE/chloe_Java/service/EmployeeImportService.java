@@ -0,0 +1,385 @@
+package com.NE.chloe_Java.service;
+
+import com.NE.chloe_Java.dto.employee.EmployeeImportError;
+import com.NE.chloe_Java.dto.employee.EmployeeImportSummary;
+import com.NE.chloe_Java.dto.employee.EmployeeRequest;
+import com.NE.chloe_Java.dto.employment.EmploymentRequest;
+import com.NE.chloe_Java.entity.Employee;
+import com.NE.chloe_Java.entity.EmployeeRole;
+import com.NE.chloe_Java.entity.Employment;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Onboards employees in bulk from a CSV stream. Rows are validated with the same constraints as
+ * registration and checked against the emails already in the database, loaded once into memory.
+ * Initial passwords are hashed on a bounded pool while the file is still being read, and each
+ * chunk of rows is written with JDBC batch inserts (employees, roles and optional employments)
+ * in its own transaction. Rejected rows are streamed back as newline-delimited JSON as they
+ * are found, followed by a summary line.
+ * <p>
+ * Columns are matched by header name: firstName, lastName, email, password, mobile and
+ * dateOfBirth (ISO) are required; role, department, position and baseSalary are optional, and
+ * an employment is created when department, position and baseSalary are given.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmployeeImportService {
+
+    private static final String SELECT_EMAILS_SQL = "SELECT LOWER(email) FROM employees";
+
+    private static final String INSERT_EMPLOYEE_SQL =
+            "INSERT INTO employees (code, first_name, last_name, email, password, mobile, date_of_birth, " +
+                    "status, security_version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String INSERT_ROLE_SQL = "INSERT INTO employee_roles (employee_code, role) VALUES (?, ?)";
+
+    private static final String INSERT_EMPLOYMENT_SQL =
+            "INSERT INTO employments (code, employee_id, department, position, base_salary, status, joining_date) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final List<String> REQUIRED_COLUMNS =
+            List.of("firstName", "lastName", "email", "password", "mobile", "dateOfBirth");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final SecurityService securityService;
+    private final EmployeeSearchIndex employeeSearchIndex;
+
+    @Value("${employees.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${employees.import.hash-pool-size:4}")
+    private int hashPoolSize;
+
+    @Value("${employees.import.hash-queue-capacity:256}")
+    private int hashQueueCapacity;
+
+    private ThreadPoolExecutor hashExecutor;
+
+    @PostConstruct
+    void startExecutor() {
+        // Kept apart from the login pool so an import never makes logins wait; when full, the
+        // reading thread hashes the row itself, which throttles reading to the hashing rate
+        hashExecutor = new ThreadPoolExecutor(hashPoolSize, hashPoolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(hashQueueCapacity), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        hashExecutor.shutdownNow();
+    }
+
+    public StreamingResponseBody importEmployees(InputStream csv) {
+        if (!securityService.hasAnyRole("MANAGER", "ADMIN")) {
+            throw new AccessDeniedException("Only managers and admins can import employees");
+        }
+
+        return out -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+                new ImportRun(reader, out).run();
+            }
+        };
+    }
+
+    private record ImportRow(long line, String code, EmployeeRequest employee, EmploymentRequest employment,
+                             CompletableFuture<String> passwordHash) {
+    }
+
+    private final class ImportRun {
+        private final BufferedReader reader;
+        private final OutputStream out;
+        private final ObjectWriter writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        private final Set<String> knownEmails = new HashSet<>();
+        private Map<String, Integer> columns;
+        private long imported;
+        private long employments;
+        private long failed;
+
+        private ImportRun(BufferedReader reader, OutputStream out) {
+            this.reader = reader;
+            this.out = out;
+        }
+
+        void run() throws IOException {
+            String header = reader.readLine();
+            if (header == null || !readHeader(header)) {
+                reportError(1, null, header == null ? "The file is empty"
+                        : "Missing required columns; expected " + String.join(", ", REQUIRED_COLUMNS));
+                writeSummary();
+                return;
+            }
+
+            knownEmails.addAll(jdbcTemplate.queryForList(SELECT_EMAILS_SQL, String.class));
+
+            List<ImportRow> chunk = new ArrayList<>(batchSize);
+            long lineNumber = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                ImportRow row = parseRow(lineNumber, line);
+                if (row != null) {
+                    chunk.add(row);
+                }
+                if (chunk.size() == batchSize) {
+                    saveChunk(chunk);
+                    chunk = new ArrayList<>(batchSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                saveChunk(chunk);
+            }
+
+            if (imported > 0) {
+                employeeSearchIndex.rebuild();
+            }
+            writeSummary();
+            log.info("Employee import finished: {} imported, {} employments, {} failed",
+                    imported, employments, failed);
+        }
+
+        private boolean readHeader(String header) {
+            columns = new HashMap<>();
+            List<String> names = parseCsvLine(header);
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).trim(), i);
+            }
+            return columns.keySet().containsAll(REQUIRED_COLUMNS);
+        }
+
+        private ImportRow parseRow(long lineNumber, String line) throws IOException {
+            List<String> values = parseCsvLine(line);
+            String email = value(values, "email");
+            try {
+                EmployeeRequest employee = new EmployeeRequest();
+                employee.setFirstName(value(values, "firstName"));
+                employee.setLastName(value(values, "lastName"));
+                employee.setEmail(email);
+                employee.setPassword(value(values, "password"));
+                employee.setMobile(value(values, "mobile"));
+                employee.setDateOfBirth(parseDate(value(values, "dateOfBirth")));
+                employee.setRoles(Set.of(parseRole(value(values, "role"))));
+                String errors = violations(validator.validate(employee));
+
+                String code = UUID.randomUUID().toString();
+                EmploymentRequest employment = null;
+                String department = value(values, "department");
+                String position = value(values, "position");
+                String baseSalary = value(values, "baseSalary");
+                if (department != null || position != null || baseSalary != null) {
+                    employment = new EmploymentRequest();
+                    employment.setEmployeeCode(code);
+                    employment.setDepartment(department);
+                    employment.setPosition(position);
+                    employment.setBaseSalary(baseSalary == null ? null : new BigDecimal(baseSalary));
+                    String employmentErrors = violations(validator.validate(employment));
+                    errors = errors.isEmpty() ? employmentErrors
+                            : employmentErrors.isEmpty() ? errors : errors + "; " + employmentErrors;
+                }
+
+                if (!errors.isEmpty()) {
+                    reportError(lineNumber, email, errors);
+                    return null;
+                }
+                if (!knownEmails.add(email.toLowerCase(Locale.ROOT))) {
+                    reportError(lineNumber, email, "Email already registered");
+                    return null;
+                }
+
+                String password = employee.getPassword();
+                CompletableFuture<String> hash = CompletableFuture.supplyAsync(
+                        () -> passwordEncoder.encode(password), hashExecutor);
+                return new ImportRow(lineNumber, code, employee, employment, hash);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                reportError(lineNumber, email, e.getMessage());
+                return null;
+            }
+        }
+
+        private void saveChunk(List<ImportRow> chunk) throws IOException {
+            List<Object[]> employeeRows = new ArrayList<>(chunk.size());
+            List<Object[]> roleRows = new ArrayList<>(chunk.size());
+            List<Object[]> employmentRows = new ArrayList<>();
+            List<ImportRow> saved = new ArrayList<>(chunk.size());
+            Date today = Date.valueOf(LocalDate.now());
+
+            for (ImportRow row : chunk) {
+                String hash;
+                try {
+                    hash = row.passwordHash().join();
+                } catch (CompletionException e) {
+                    reportError(row.line(), row.employee().getEmail(), "Password could not be hashed");
+                    continue;
+                }
+
+                EmployeeRequest employee = row.employee();
+                employeeRows.add(new Object[]{
+                        row.code(),
+                        employee.getFirstName(),
+                        employee.getLastName(),
+                        employee.getEmail(),
+                        hash,
+                        employee.getMobile(),
+                        Date.valueOf(employee.getDateOfBirth()),
+                        Employee.EmployeeStatus.ACTIVE.name()
+                });
+                employee.getRoles().forEach(role -> roleRows.add(new Object[]{row.code(), role}));
+
+                EmploymentRequest employment = row.employment();
+                if (employment != null) {
+                    employmentRows.add(new Object[]{
+                            UUID.randomUUID().toString(),
+                            row.code(),
+                            employment.getDepartment(),
+                            employment.getPosition(),
+                            employment.getBaseSalary(),
+                            Employment.EmploymentStatus.ACTIVE.name(),
+                            today
+                    });
+                }
+                saved.add(row);
+            }
+
+            if (saved.isEmpty()) {
+                out.flush();
+                return;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(INSERT_EMPLOYEE_SQL, employeeRows);
+                    jdbcTemplate.batchUpdate(INSERT_ROLE_SQL, roleRows);
+                    jdbcTemplate.batchUpdate(INSERT_EMPLOYMENT_SQL, employmentRows);
+                });
+                imported += saved.size();
+                employments += employmentRows.size();
+            } catch (DataAccessException e) {
+                // Typically an email registered concurrently; the whole chunk was rolled back
+                log.warn("Employee import failed to save a chunk of {} rows: {}", saved.size(), e.getMessage());
+                for (ImportRow row : saved) {
+                    reportError(row.line(), row.employee().getEmail(),
+                            "Not saved, the batch it belonged to failed: " + e.getMostSpecificCause().getMessage());
+                }
+            }
+            out.flush();
+        }
+
+        private String value(List<String> values, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= values.size()) {
+                return null;
+            }
+            String value = values.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private void reportError(long line, String email, String error) throws IOException {
+            failed++;
+            writer.writeValue(out, new EmployeeImportError(line, email, error));
+            out.write('\n');
+        }
+
+        private void writeSummary() throws IOException {
+            writer.writeValue(out, new EmployeeImportSummary(imported, employments, failed));
+            out.write('\n');
+            out.flush();
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        return value == null ? null : LocalDate.parse(value);
+    }
+
+    private static String parseRole(String value) {
+        if (value == null) {
+            return EmployeeRole.ROLE_EMPLOYEE.name();
+        }
+        String role = value.toUpperCase(Locale.ROOT);
+        try {
+            return EmployeeRole.valueOf(role.startsWith("ROLE_") ? role : "ROLE_" + role).name();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown role: " + value);
+        }
+    }
+
+    private static String violations(Set<? extends ConstraintViolation<?>> violations) {
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * Splits one CSV record, honouring double-quoted fields with doubled quotes inside.
+     */
+    private static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+}
@@ -0,0 +1,264 @@
+package com.NE.chloe_Java.service;
+
+import com.NE.chloe_Java.dto.employee.EmployeeSearchResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory search index over active employees for directory type-ahead. Names, email,
+ * department and position are split into lower-case tokens kept in a sorted map, so a query
+ * token matches exactly, as a prefix, or within a small edit distance of an indexed token.
+ * <p>
+ * The index is built once at startup and then updated one employee at a time after the
+ * transactions that change them commit; a periodic rebuild catches writes made outside the
+ * services.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmployeeSearchIndex {
+
+    // One row per employee: if several employments are active, the most recently joined one is indexed
+    private static final String SELECT_SQL =
+            "SELECT e.code, e.first_name, e.last_name, e.email, em.department, em.position FROM employees e " +
+                    "LEFT JOIN employments em ON em.code = (SELECT latest.code FROM employments latest " +
+                    "WHERE latest.employee_id = e.code AND latest.status = 'ACTIVE' " +
+                    "ORDER BY latest.joining_date DESC, latest.code DESC LIMIT 1) " +
+                    "WHERE e.status = 'ACTIVE'";
+
+    private static final int EXACT_SCORE = 3;
+    private static final int PREFIX_SCORE = 2;
+    private static final int FUZZY_SCORE = 1;
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${employees.search.max-results:50}")
+    private int maxResults;
+
+    private volatile Index index = new Index();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${employees.search.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${employees.search.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        Index rebuilt = new Index();
+        jdbcTemplate.query(SELECT_SQL, rs -> {
+            rebuilt.add(new Entry(rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                    rs.getString(5), rs.getString(6)));
+        });
+        index = rebuilt;
+        log.info("Employee search index built with {} employees", rebuilt.entries.size());
+    }
+
+    /**
+     * Re-reads one employee into the index once the current transaction commits, or removes
+     * them if they are no longer active.
+     */
+    public void refreshAfterCommit(String employeeCode) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh(employeeCode);
+                }
+            });
+        } else {
+            refresh(employeeCode);
+        }
+    }
+
+    public synchronized void refresh(String employeeCode) {
+        List<Entry> rows = jdbcTemplate.query(SELECT_SQL + " AND e.code = ?",
+                (rs, rowNum) -> new Entry(rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                        rs.getString(5), rs.getString(6)),
+                employeeCode);
+
+        index.remove(employeeCode);
+        if (!rows.isEmpty()) {
+            index.add(rows.get(0));
+        }
+    }
+
+    /**
+     * Returns the best matches for a free-text query. Every query token has to match some token
+     * of an employee; exact matches rank above prefix matches, which rank above typo matches.
+     */
+    public List<EmployeeSearchResult> search(String query, int limit) {
+        List<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty()) {
+            return List.of();
+        }
+
+        Index current = index;
+        Map<String, Integer> scores = null;
+        for (String token : queryTokens) {
+            Map<String, Integer> matches = current.match(token);
+            if (scores == null) {
+                scores = matches;
+            } else {
+                scores.keySet().retainAll(matches.keySet());
+                scores.replaceAll((code, score) -> score + matches.get(code));
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        // Refreshes edit the index in place, so an employee matched above may already be gone
+        record Scored(Entry entry, int score) {
+        }
+        List<Scored> matched = new ArrayList<>(scores.size());
+        scores.forEach((code, score) -> {
+            Entry entry = current.entries.get(code);
+            if (entry != null) {
+                matched.add(new Scored(entry, score));
+            }
+        });
+
+        return matched.stream()
+                .sorted(Comparator.comparingInt(Scored::score).reversed()
+                        .thenComparing(scored -> scored.entry().sortKey()))
+                .limit(Math.max(1, Math.min(limit, maxResults)))
+                .map(scored -> scored.entry().toResult())
+                .toList();
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Edit distance between the query and the closest prefix of the token, so a typo is
+     * tolerated while the rest of the word is still being typed. Gives up once it exceeds max.
+     */
+    private static int prefixDistance(String query, String indexed, int max) {
+        // Characters past this point can only add to the distance
+        String token = indexed.substring(0, Math.min(indexed.length(), query.length() + max));
+        int[] previous = new int[token.length() + 1];
+        int[] current = new int[token.length() + 1];
+        for (int j = 0; j <= token.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= query.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= token.length(); j++) {
+                int cost = query.charAt(i - 1) == token.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return rowMin;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        int best = Integer.MAX_VALUE;
+        for (int j = 0; j <= token.length(); j++) {
+            best = Math.min(best, previous[j]);
+        }
+        return best;
+    }
+
+    private record Entry(String code, String firstName, String lastName, String email,
+                         String department, String position) {
+
+        Set<String> tokens() {
+            Set<String> tokens = new HashSet<>();
+            for (String field : new String[]{firstName, lastName, email, department, position}) {
+                tokens.addAll(tokenize(field));
+            }
+            return tokens;
+        }
+
+        String sortKey() {
+            return lastName + " " + firstName;
+        }
+
+        EmployeeSearchResult toResult() {
+            return EmployeeSearchResult.builder()
+                    .code(code)
+                    .firstName(firstName)
+                    .lastName(lastName)
+                    .email(email)
+                    .department(department)
+                    .position(position)
+                    .build();
+        }
+    }
+
+    private static final class Index {
+        private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+        // Token -> codes of the employees having it, sorted so prefixes are contiguous ranges
+        private final ConcurrentSkipListMap<String, Set<String>> postings = new ConcurrentSkipListMap<>();
+
+        void add(Entry entry) {
+            // Replacing an entry drops its old tokens, so no posting outlives the entry it came from
+            remove(entry.code());
+            entries.put(entry.code(), entry);
+            for (String token : entry.tokens()) {
+                postings.computeIfAbsent(token, key -> ConcurrentHashMap.newKeySet()).add(entry.code());
+            }
+        }
+
+        void remove(String code) {
+            Entry entry = entries.remove(code);
+            if (entry == null) {
+                return;
+            }
+            for (String token : entry.tokens()) {
+                postings.computeIfPresent(token, (key, codes) -> {
+                    codes.remove(code);
+                    return codes.isEmpty() ? null : codes;
+                });
+            }
+        }
+
+        Map<String, Integer> match(String token) {
+            Map<String, Integer> scores = new HashMap<>();
+            for (Map.Entry<String, Set<String>> posting
+                    : postings.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+                int score = posting.getKey().equals(token) ? EXACT_SCORE : PREFIX_SCORE;
+                posting.getValue().forEach(code -> scores.merge(code, score, Math::max));
+            }
+
+            if (token.length() >= MIN_FUZZY_LENGTH) {
+                // Typos are looked for among tokens sharing the first letter, which keeps the scan small
+                int maxDistance = token.length() >= 8 ? 2 : 1;
+                String first = token.substring(0, 1);
+                for (Map.Entry<String, Set<String>> posting
+                        : postings.subMap(first, true, first + Character.MAX_VALUE, false).entrySet()) {
+                    if (prefixDistance(token, posting.getKey(), maxDistance) <= maxDistance) {
+                        posting.getValue().forEach(code -> scores.merge(code, FUZZY_SCORE, Math::max));
+                    }
+                }
+            }
+            return scores;
+        }
+    }
+}
@@ -1,26 +1,47 @@
 package com.NE.chloe_Java.service;
 
 
+import com.NE.chloe_Java.dto.employee.EmployeePageResponse;
 import com.NE.chloe_Java.dto.employee.EmployeeRequest;
 import com.NE.chloe_Java.dto.employee.EmployeeResponse;
+import com.NE.chloe_Java.dto.employee.EmployeeSearchResult;
+import com.NE.chloe_Java.dto.employee.EmployeeSummary;
 import com.NE.chloe_Java.entity.Employee;
 import com.NE.chloe_Java.exception.ResourceNotFoundException;
 import com.NE.chloe_Java.repository.EmployeeRepository;
+import com.NE.chloe_Java.security.SecurityVersionCache;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class EmployeeService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final EmployeeRepository employeeRepository;
     private final PasswordEncoder passwordEncoder;
+    private final SecurityVersionCache securityVersionCache;
+    private final EmployeeSearchIndex employeeSearchIndex;
+    private final EmployeeCache employeeCache;
 
-    public EmployeeService(EmployeeRepository employeeRepository, PasswordEncoder passwordEncoder) {
+    public EmployeeService(EmployeeRepository employeeRepository, PasswordEncoder passwordEncoder,
+                           SecurityVersionCache securityVersionCache, EmployeeSearchIndex employeeSearchIndex,
+                           EmployeeCache employeeCache) {
         this.employeeRepository = employeeRepository;
         this.passwordEncoder = passwordEncoder;
+        this.securityVersionCache = securityVersionCache;
+        this.employeeSearchIndex = employeeSearchIndex;
+        this.employeeCache = employeeCache;
     }
 
     @Transactional(readOnly = true)
@@ -30,11 +51,50 @@ public class EmployeeService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Returns one keyset page of the employee directory, ordered by code. Employees are read as a
+     * column projection and the roles of the whole page are loaded with a single query, instead of
+     * one roles select per employee.
+     */
     @Transactional(readOnly = true)
+    public EmployeePageResponse getEmployeePage(Employee.EmployeeStatus status, String name, String department,
+                                                String cursor, int size) {
+        Pageable limit = PageRequest.of(0, Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        String namePrefix = name == null || name.isBlank() ? null : escapeLike(name.trim()) + "%";
+        String departmentFilter = department == null || department.isBlank() ? null : department.trim();
+        String after = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor);
+
+        List<EmployeeSummary> employees = employeeRepository.findDirectoryPage(status, namePrefix,
+                departmentFilter, after, limit);
+
+        Map<String, Set<String>> roles = new HashMap<>();
+        if (!employees.isEmpty()) {
+            List<String> codes = employees.stream().map(EmployeeSummary::code).toList();
+            for (Object[] row : employeeRepository.findRolesByCodes(codes)) {
+                roles.computeIfAbsent((String) row[0], code -> new HashSet<>()).add((String) row[1]);
+            }
+        }
+
+        String nextCursor = employees.size() == limit.getPageSize()
+                ? encodeCursor(employees.get(employees.size() - 1).code())
+                : null;
+        return EmployeePageResponse.builder()
+                .items(employees.stream()
+                        .map(employee -> mapToEmployeeResponse(employee, roles.getOrDefault(employee.code(), Set.of())))
+                        .collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
     public EmployeeResponse getEmployeeByCode(String code) {
-        Employee employee = employeeRepository.findByCodeAndStatus(code, Employee.EmployeeStatus.ACTIVE)
+        EmployeeCache.CachedEmployee employee = employeeCache.findActiveEmployee(code)
                 .orElseThrow(() -> new ResourceNotFoundException("Employee not found with code: " + code));
-        return mapToEmployeeResponse(employee);
+        return mapToEmployeeResponse(new EmployeeSummary(employee.code(), employee.firstName(), employee.lastName(),
+                employee.email(), employee.mobile(), employee.dateOfBirth(), employee.status()), employee.roles());
+    }
+
+    public List<EmployeeSearchResult> searchEmployees(String query, int limit) {
+        return employeeSearchIndex.search(query, limit);
     }
 
     @Transactional
@@ -47,11 +107,16 @@ public class EmployeeService {
         employee.setMobile(request.getMobile());
         employee.setDateOfBirth(request.getDateOfBirth());
 
-        if (request.getPassword() != null && !request.getPassword().isEmpty()) {
+        // Every update carries the password; only a different one signs the employee out everywhere
+        if (request.getPassword() != null && !request.getPassword().isEmpty()
+                && !passwordEncoder.matches(request.getPassword(), employee.getPassword())) {
             employee.setPassword(passwordEncoder.encode(request.getPassword()));
+            revokeTokens(employee);
         }
 
         Employee updatedEmployee = employeeRepository.save(employee);
+        employeeSearchIndex.refreshAfterCommit(code);
+        employeeCache.invalidateAfterCommit(code);
         return mapToEmployeeResponse(updatedEmployee);
     }
 
@@ -61,7 +126,44 @@ public class EmployeeService {
                 .orElseThrow(() -> new ResourceNotFoundException("Employee not found with code: " + code));
 
         employee.setStatus(Employee.EmployeeStatus.DISABLED);
+        revokeTokens(employee);
         employeeRepository.save(employee);
+        employeeSearchIndex.refreshAfterCommit(code);
+        employeeCache.invalidateAfterCommit(code);
+    }
+
+    private void revokeTokens(Employee employee) {
+        employee.setSecurityVersion(employee.getSecurityVersion() + 1);
+        securityVersionCache.invalidateAfterCommit(employee.getCode());
+    }
+
+    private EmployeeResponse mapToEmployeeResponse(EmployeeSummary employee, Set<String> roles) {
+        EmployeeResponse response = new EmployeeResponse();
+        response.setCode(employee.code());
+        response.setFirstName(employee.firstName());
+        response.setLastName(employee.lastName());
+        response.setEmail(employee.email());
+        response.setRoles(roles);
+        response.setMobile(employee.mobile());
+        response.setDateOfBirth(employee.dateOfBirth());
+        response.setStatus(employee.status().name());
+        return response;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    private String encodeCursor(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes());
+    }
+
+    private String decodeCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
     }
 
     private EmployeeResponse mapToEmployeeResponse(Employee employee) {
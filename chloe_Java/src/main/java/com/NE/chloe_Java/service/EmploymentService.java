@@ -26,6 +26,8 @@ public class EmploymentService {
     private final EmploymentRepository employmentRepository;
     private final EmployeeRepository employeeRepository;
     private final SecurityService securityService;
+    private final EmployeeSearchIndex employeeSearchIndex;
+    private final EmployeeCache employeeCache;
 
     @Transactional
     public EmploymentResponse createEmployment(EmploymentRequest request) {
@@ -56,6 +58,9 @@ public class EmploymentService {
         employment.setJoiningDate(LocalDate.now());
 
         Employment savedEmployment = employmentRepository.save(employment);
+        // Department and position are searchable
+        employeeSearchIndex.refreshAfterCommit(savedEmployment.getEmployee().getCode());
+        employeeCache.invalidateAfterCommit(savedEmployment.getEmployee().getCode());
         return mapToEmploymentResponse(savedEmployment);
     }
 
@@ -92,6 +97,9 @@ public class EmploymentService {
 //        }
 
         Employment savedEmployment = employmentRepository.save(employment);
+        // Department and position are searchable
+        employeeSearchIndex.refreshAfterCommit(savedEmployment.getEmployee().getCode());
+        employeeCache.invalidateAfterCommit(savedEmployment.getEmployee().getCode());
         return mapToEmploymentResponse(savedEmployment);
     }
 
@@ -126,12 +134,21 @@ public class EmploymentService {
             throw new AccessDeniedException("Access denied");
         }
 
-        Employment employment = employmentRepository.findByEmployeeCodeAndStatus(
-                        employeeCode, Employment.EmploymentStatus.ACTIVE)
-                .stream()
-                .findFirst()
+        EmployeeCache.CachedEmployment employment = employeeCache.findActiveEmployment(employeeCode)
                 .orElseThrow(() -> new ResourceNotFoundException("Active employment not found"));
+        String employeeName = employeeCache.findActiveEmployee(employeeCode)
+                .map(EmployeeCache.CachedEmployee::fullName)
+                .orElseGet(() -> employeeRepository.findFullNameByCode(employeeCode).orElse(null));
 
-        return mapToEmploymentResponse(employment);
+        EmploymentResponse response = new EmploymentResponse();
+        response.setCode(employment.code());
+        response.setEmployeeCode(employment.employeeCode());
+        response.setEmployeeName(employeeName);
+        response.setBaseSalary(employment.baseSalary());
+        response.setPosition(employment.position());
+        response.setDepartment(employment.department());
+        response.setStatus(employment.status().name());
+        response.setJoiningDate(employment.joiningDate().atStartOfDay());
+        return response;
     }
 }
\ No newline at end of file
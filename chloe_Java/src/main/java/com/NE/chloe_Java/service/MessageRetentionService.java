@@ -0,0 +1,111 @@
+package com.NE.chloe_Java.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves messages older than the retention horizon from the messages table into the compressed
+ * message_archive table, so the hot table only holds recent messages. Work is done oldest first
+ * in small batches, each in its own short transaction, with a pause in between so the job never
+ * competes with request traffic for long.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MessageRetentionService {
+
+    private static final String SELECT_BATCH_SQL =
+            "SELECT id FROM messages WHERE created_at < ? ORDER BY created_at, id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String UNREAD_BY_EMPLOYEE_SQL =
+            "SELECT employee_id, COUNT(*) AS unread FROM messages WHERE id IN (%s) AND is_read = FALSE " +
+                    "GROUP BY employee_id";
+
+    private static final String ARCHIVE_SQL =
+            "INSERT INTO message_archive (id, employee_id, subject, content, template_id, params, is_read, " +
+                    "created_at, read_at, archived_at) " +
+                    "SELECT id, employee_id, subject, content, template_id, params, is_read, created_at, read_at, ? " +
+                    "FROM messages WHERE id IN (%s)";
+
+    private static final String DELETE_SQL = "DELETE FROM messages WHERE id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UnreadMessageCounter unreadMessageCounter;
+
+    @Value("${messages.retention.days:365}")
+    private int retentionDays;
+
+    @Value("${messages.retention.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${messages.retention.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    @Value("${messages.retention.batch-pause-ms:200}")
+    private long batchPauseMillis;
+
+    @Scheduled(cron = "${messages.retention.cron:0 0 2 * * *}")
+    public void archiveExpiredMessages() {
+        Timestamp horizon = Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays));
+        long archived = 0;
+
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                int moved = archiveBatch(horizon);
+                archived += moved;
+                if (moved < batchSize) {
+                    break;
+                }
+                Thread.sleep(batchPauseMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Message archival failed: {}", e.getMessage());
+        }
+
+        if (archived > 0) {
+            log.info("Archived {} messages older than {}", archived, horizon);
+        }
+    }
+
+    private int archiveBatch(Timestamp horizon) {
+        Integer moved = transactionTemplate.execute(status -> {
+            List<String> ids = jdbcTemplate.queryForList(SELECT_BATCH_SQL, String.class, horizon, batchSize);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+
+            String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+            Object[] idArgs = ids.toArray();
+
+            // Archived messages leave the inbox, so they no longer count as unread
+            List<Map<String, Object>> unread = jdbcTemplate.queryForList(
+                    String.format(UNREAD_BY_EMPLOYEE_SQL, placeholders), idArgs);
+            for (Map<String, Object> row : unread) {
+                unreadMessageCounter.decrement((String) row.get("employee_id"),
+                        ((Number) row.get("unread")).intValue());
+            }
+
+            Object[] archiveArgs = new Object[ids.size() + 1];
+            archiveArgs[0] = Timestamp.valueOf(LocalDateTime.now());
+            System.arraycopy(idArgs, 0, archiveArgs, 1, ids.size());
+            jdbcTemplate.update(String.format(ARCHIVE_SQL, placeholders), archiveArgs);
+            jdbcTemplate.update(String.format(DELETE_SQL, placeholders), idArgs);
+            return ids.size();
+        });
+        return moved != null ? moved : 0;
+    }
+}
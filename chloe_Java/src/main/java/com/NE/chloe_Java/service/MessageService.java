@@ -2,56 +2,240 @@ package com.NE.chloe_Java.service;
 
 
 
+import com.NE.chloe_Java.dto.message.BroadcastRequest;
+import com.NE.chloe_Java.dto.message.MarkReadRequest;
+import com.NE.chloe_Java.dto.message.MessagePageResponse;
 import com.NE.chloe_Java.dto.message.MessageResponse;
+import com.NE.chloe_Java.dto.message.NotificationRecipient;
+import com.NE.chloe_Java.entity.ArchivedMessage;
 import com.NE.chloe_Java.entity.Employee;
 import com.NE.chloe_Java.entity.Message;
+import com.NE.chloe_Java.repository.ArchivedMessageRepository;
 import com.NE.chloe_Java.repository.EmployeeRepository;
 import com.NE.chloe_Java.repository.MessageRepository;
 import com.NE.chloe_Java.exception.ResourceNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class MessageService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private static final String INSERT_MESSAGE_SQL =
+            "INSERT INTO messages (id, employee_id, subject, content, is_read, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
     private final MessageRepository messageRepository;
     private final EmployeeRepository employeeRepository;
+    private final ArchivedMessageRepository archivedMessageRepository;
+    private final UnreadMessageCounter unreadMessageCounter;
+    private final MessageStreamService messageStreamService;
+    private final SecurityService securityService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EmployeeCache employeeCache;
+
+    @Value("${messages.stream.replay-limit:100}")
+    private int replayLimit;
+
+    @Value("${messages.broadcast.batch-size:1000}")
+    private int broadcastBatchSize;
 
+    /**
+     * Stores a notification as its template id and encoded parameters; the text is rendered when read.
+     */
     @Transactional
-    public MessageResponse createSalaryNotification(String employeeCode, String subject, String content) {
-        Employee employee = employeeRepository.findByCode(employeeCode)
+    public MessageResponse createSalaryNotification(String employeeCode, NotificationTemplate template,
+                                                    String params) {
+        // The name doubles as the existence check; the message only needs a reference to the employee
+        String employeeName = findEmployeeName(employeeCode)
                 .orElseThrow(() -> new ResourceNotFoundException("Employee not found with code: " + employeeCode));
 
         Message message = Message.builder()
-                .employee(employee)
-                .subject(subject)
-                .content(content)
+                .employee(employeeRepository.getReferenceById(employeeCode))
+                .subject(template.renderSubject(params))
+                .templateId(template.name())
+                .params(params)
                 .build();
 
         Message savedMessage = messageRepository.save(message);
-        return mapToResponse(savedMessage);
+        unreadMessageCounter.increment(employeeCode);
+
+        MessageResponse response = mapToResponse(savedMessage, employeeName);
+        messageStreamService.publishAfterCommit(response);
+        return response;
+    }
+
+    /**
+     * Sends the same message to a list of employees, a department or every active employee.
+     * Recipients are resolved with one projection query and the messages are written with JDBC
+     * batch inserts in chunks, instead of one load and insert per employee. All chunks share one
+     * transaction, so a failure delivers nothing and the broadcast can simply be retried.
+     *
+     * @return the number of employees notified
+     */
+    public int broadcast(BroadcastRequest request) {
+        List<NotificationRecipient> recipients = resolveRecipients(request);
+        List<MessageResponse> messages = new ArrayList<>(recipients.size());
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int from = 0; from < recipients.size(); from += broadcastBatchSize) {
+                messages.addAll(insertBroadcastChunk(request, recipients.subList(from,
+                        Math.min(from + broadcastBatchSize, recipients.size()))));
+            }
+        });
+        // Only committed messages are pushed to open inbox streams
+        messages.forEach(messageStreamService::publish);
+        return recipients.size();
+    }
+
+    private List<NotificationRecipient> resolveRecipients(BroadcastRequest request) {
+        boolean byCodes = request.getEmployeeCodes() != null && !request.getEmployeeCodes().isEmpty();
+        boolean byDepartment = request.getDepartment() != null && !request.getDepartment().isBlank();
+        int targets = (byCodes ? 1 : 0) + (byDepartment ? 1 : 0) + (request.isAllEmployees() ? 1 : 0);
+        if (targets != 1) {
+            throw new IllegalArgumentException("Specify exactly one of employeeCodes, department or allEmployees");
+        }
+
+        // Managers may only notify their own department
+        if (!securityService.hasRole("ADMIN")
+                && !(byDepartment && securityService.isDepartmentManager(request.getDepartment()))) {
+            throw new AccessDeniedException("Only admins can notify employees outside their department");
+        }
+
+        if (byCodes) {
+            return employeeRepository.findRecipientsByCodes(new LinkedHashSet<>(request.getEmployeeCodes()),
+                    Employee.EmployeeStatus.ACTIVE);
+        }
+        if (byDepartment) {
+            return employeeRepository.findRecipientsByDepartment(request.getDepartment(),
+                    Employee.EmployeeStatus.ACTIVE);
+        }
+        return employeeRepository.findRecipientsByStatus(Employee.EmployeeStatus.ACTIVE);
+    }
+
+    private List<MessageResponse> insertBroadcastChunk(BroadcastRequest request, List<NotificationRecipient> recipients) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp createdAt = Timestamp.valueOf(now);
+        List<Object[]> rows = new ArrayList<>(recipients.size());
+        List<MessageResponse> messages = new ArrayList<>(recipients.size());
+
+        for (NotificationRecipient recipient : recipients) {
+            String id = UUID.randomUUID().toString();
+            rows.add(new Object[]{id, recipient.employeeCode(), request.getSubject(), request.getContent(),
+                    false, createdAt});
+            messages.add(MessageResponse.builder()
+                    .id(id)
+                    .employeeCode(recipient.employeeCode())
+                    .employeeName(recipient.firstName() + " " + recipient.lastName())
+                    .subject(request.getSubject())
+                    .content(request.getContent())
+                    .createdAt(now)
+                    .build());
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_MESSAGE_SQL, rows);
+        unreadMessageCounter.incrementAll(recipients.stream().map(NotificationRecipient::employeeCode).toList());
+        return messages;
     }
 
     @Transactional(readOnly = true)
     public List<MessageResponse> getEmployeeMessages(String employeeCode) {
-        return messageRepository.findByEmployeeCodeOrderByCreatedAtDesc(employeeCode)
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return mapToResponses(employeeCode, messageRepository.findByEmployeeCodeOrderByCreatedAtDesc(employeeCode));
     }
 
     @Transactional(readOnly = true)
     public List<MessageResponse> getUnreadMessages(String employeeCode) {
-        return messageRepository.findByEmployeeCodeAndIsReadOrderByCreatedAtDesc(employeeCode, false)
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        return mapToResponses(employeeCode,
+                messageRepository.findByEmployeeCodeAndIsReadOrderByCreatedAtDesc(employeeCode, false));
+    }
+
+    /**
+     * Returns a page of the employee's inbox, newest first. Archived messages are all older than
+     * the ones still in the messages table, so once the hot table is exhausted the page continues
+     * seamlessly into the archive with the same cursor.
+     */
+    @Transactional(readOnly = true)
+    public MessagePageResponse getMessagePage(String employeeCode, String cursor, int size) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        LocalDateTime afterCreatedAt = null;
+        String afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] key = decodeCursor(cursor);
+            afterCreatedAt = parseCursorTime(key[0]);
+            afterId = key[1];
+        }
+
+        List<Message> messages = afterId == null
+                ? messageRepository.findByEmployeeCodeOrderByCreatedAtDescIdDesc(employeeCode, PageRequest.of(0, limit))
+                : messageRepository.findInboxPageAfter(employeeCode, afterCreatedAt, afterId, PageRequest.of(0, limit));
+        List<MessageResponse> items = new ArrayList<>(mapToResponses(employeeCode, messages));
+
+        if (items.size() < limit) {
+            if (!messages.isEmpty()) {
+                Message last = messages.get(messages.size() - 1);
+                afterCreatedAt = last.getCreatedAt();
+                afterId = last.getId();
+            }
+            Pageable remaining = PageRequest.of(0, limit - items.size());
+            List<ArchivedMessage> archived = afterId == null
+                    ? archivedMessageRepository.findByEmployeeCodeOrderByCreatedAtDescIdDesc(employeeCode, remaining)
+                    : archivedMessageRepository.findPageAfter(employeeCode, afterCreatedAt, afterId, remaining);
+            if (!archived.isEmpty()) {
+                String employeeName = findEmployeeName(employeeCode).orElse(null);
+                archived.forEach(message -> items.add(mapToResponse(message, employeeName)));
+            }
+        }
+
+        String nextCursor = null;
+        if (items.size() == limit) {
+            MessageResponse last = items.get(items.size() - 1);
+            nextCursor = encodeCursor(last.getCreatedAt() + "|" + last.getId());
+        }
+        return MessagePageResponse.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Marks all unread messages of an employee, or the given ones, as read in a single UPDATE
+     * and returns how many were unread.
+     */
+    @Transactional
+    public int markAsRead(String employeeCode, MarkReadRequest request) {
+        LocalDateTime readAt = LocalDateTime.now();
+        int updated;
+        if (request.isAll()) {
+            updated = messageRepository.markAllAsRead(employeeCode, readAt);
+        } else if (request.getIds() != null && !request.getIds().isEmpty()) {
+            updated = messageRepository.markAsRead(employeeCode, Set.copyOf(request.getIds()), readAt);
+        } else {
+            throw new IllegalArgumentException("Either all or ids must be given");
+        }
+
+        unreadMessageCounter.decrement(employeeCode, updated);
+        return updated;
     }
 
     @Transactional
@@ -59,26 +243,125 @@ public class MessageService {
         Message message = messageRepository.findById(messageId)
                 .orElseThrow(() -> new ResourceNotFoundException("Message not found with id: " + messageId));
 
-        message.setRead(true);
-        message.setReadAt(LocalDateTime.now());
-        return mapToResponse(messageRepository.save(message));
+        LocalDateTime readAt = LocalDateTime.now();
+        // Only the request that actually flips the flag adjusts the unread counter
+        if (messageRepository.markAsRead(messageId, readAt) == 1) {
+            unreadMessageCounter.decrement(message.getEmployee().getCode(), 1);
+            message.setRead(true);
+            message.setReadAt(readAt);
+        }
+        return mapToResponse(message);
     }
 
-    @Transactional(readOnly = true)
     public long getUnreadMessageCount(String employeeCode) {
-        return messageRepository.countByEmployeeCodeAndIsRead(employeeCode, false);
+        return unreadMessageCounter.get(employeeCode);
+    }
+
+    /**
+     * Opens the current user's message stream. When the client reconnects with the id of the last
+     * event it received, the messages created after it are replayed first. The replay reads only
+     * the hot table and at most replayLimit messages; beyond that the client is told to resync.
+     */
+    public SseEmitter openMessageStream(String lastEventId) {
+        String employeeCode = securityService.getCurrentUserCode();
+        if (employeeCode == null) {
+            throw new AccessDeniedException("Access denied");
+        }
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return messageStreamService.subscribe(employeeCode, MessageStreamService.Replay::none);
+        }
+
+        // Read after the stream is registered, in its own short transaction
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        return messageStreamService.subscribe(employeeCode, () -> readOnly.execute(status -> {
+            Optional<Message> last = messageRepository.findById(lastEventId)
+                    .filter(message -> message.getEmployee().getCode().equals(employeeCode));
+            if (last.isEmpty()) {
+                // Unknown or already archived: the gap cannot be replayed from the messages table
+                return new MessageStreamService.Replay(List.of(), true);
+            }
+            List<Message> missed = messageRepository.findMessagesAfter(employeeCode, last.get().getCreatedAt(),
+                    last.get().getId(), PageRequest.of(0, replayLimit));
+            return new MessageStreamService.Replay(missed.stream().map(this::mapToResponse).toList(),
+                    missed.size() == replayLimit);
+        }));
+    }
+
+    // All messages belong to the employee, so the name is resolved once instead of per message
+    private List<MessageResponse> mapToResponses(String employeeCode, List<Message> messages) {
+        if (messages.isEmpty()) {
+            return List.of();
+        }
+        String employeeName = findEmployeeName(employeeCode).orElse(null);
+        return messages.stream()
+                .map(message -> mapToResponse(message, employeeName))
+                .collect(Collectors.toList());
     }
 
     private MessageResponse mapToResponse(Message message) {
+        return mapToResponse(message,
+                message.getEmployee().getFirstName() + " " + message.getEmployee().getLastName());
+    }
+
+    private MessageResponse mapToResponse(ArchivedMessage message, String employeeName) {
+        return MessageResponse.builder()
+                .id(message.getId())
+                .employeeCode(message.getEmployeeCode())
+                .employeeName(employeeName)
+                .subject(message.getSubject())
+                .content(renderContent(message.getTemplateId(), message.getParams(), message.getContent()))
+                .isRead(message.isRead())
+                .createdAt(message.getCreatedAt())
+                .readAt(message.getReadAt())
+                .build();
+    }
+
+    private MessageResponse mapToResponse(Message message, String employeeName) {
         return MessageResponse.builder()
                 .id(message.getId())
                 .employeeCode(message.getEmployee().getCode())
-                .employeeName(message.getEmployee().getFirstName() + " " + message.getEmployee().getLastName())
+                .employeeName(employeeName)
                 .subject(message.getSubject())
-                .content(message.getContent())
+                .content(renderContent(message.getTemplateId(), message.getParams(), message.getContent()))
                 .isRead(message.isRead())
                 .createdAt(message.getCreatedAt())
                 .readAt(message.getReadAt())
                 .build();
     }
+
+    // Active employees come from the cache; disabled ones still have their messages
+    private Optional<String> findEmployeeName(String employeeCode) {
+        Optional<String> cached = employeeCache.findActiveEmployee(employeeCode)
+                .map(EmployeeCache.CachedEmployee::fullName);
+        return cached.isPresent() ? cached : employeeRepository.findFullNameByCode(employeeCode);
+    }
+
+    static String renderContent(String templateId, String params, String content) {
+        return templateId != null ? NotificationTemplate.valueOf(templateId).renderBody(params) : content;
+    }
+
+    private String encodeCursor(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes());
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String[] key = new String(Base64.getUrlDecoder().decode(cursor)).split("\\|", 2);
+            if (key.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return key;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private LocalDateTime parseCursorTime(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
 }
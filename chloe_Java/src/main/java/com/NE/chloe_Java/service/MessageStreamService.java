@@ -0,0 +1,206 @@
+package com.NE.chloe_Java.service;
+
+import com.NE.chloe_Java.dto.message.MessageResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Pushes new messages to connected clients over Server-Sent Events. Emitters use async servlet
+ * support, so an idle connection holds no thread; events are written on virtual threads so a
+ * slow client cannot hold up the transaction that created the message.
+ * <p>
+ * A reconnecting client is registered before its missed messages are read, so nothing committed
+ * in between is lost: live messages are buffered until the replay has been sent and duplicates
+ * are dropped by id. When the replay cannot cover the gap a {@code resync} event tells the client
+ * to reload its inbox.
+ */
+@Service
+@Slf4j
+public class MessageStreamService {
+
+    private static final String MESSAGE_EVENT = "message";
+    private static final String RESYNC_EVENT = "resync";
+
+    @Value("${messages.stream.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    private final Map<String, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+
+    private ExecutorService sendExecutor;
+
+    @PostConstruct
+    void startExecutor() {
+        sendExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        subscriptions.values().forEach(set -> set.forEach(subscription -> subscription.emitter.complete()));
+        sendExecutor.shutdownNow();
+    }
+
+    /**
+     * Opens a stream for an employee. The stream is registered first and then sends what the
+     * replay query returns, the messages the client missed while it was disconnected, followed
+     * by any message published in the meantime.
+     */
+    public SseEmitter subscribe(String employeeCode, Supplier<Replay> replay) {
+        Subscription subscription = new Subscription(new SseEmitter(timeoutMillis));
+        SseEmitter emitter = subscription.emitter;
+
+        Runnable remove = () -> subscriptions.computeIfPresent(employeeCode, (code, set) -> {
+            set.remove(subscription);
+            return set.isEmpty() ? null : set;
+        });
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+        subscriptions.computeIfAbsent(employeeCode, code -> ConcurrentHashMap.newKeySet()).add(subscription);
+
+        Replay missed;
+        try {
+            missed = replay.get();
+        } catch (RuntimeException e) {
+            remove.run();
+            throw e;
+        }
+
+        Set<String> replayed = new HashSet<>();
+        for (MessageResponse message : missed.messages()) {
+            if (!send(emitter, message)) {
+                return emitter;
+            }
+            replayed.add(message.getId());
+        }
+        if (missed.resync() && !sendResync(emitter)) {
+            return emitter;
+        }
+
+        // Flush what was published during the replay, then hand the stream over to publish()
+        while (true) {
+            List<MessageResponse> buffered;
+            synchronized (subscription) {
+                if (subscription.buffered.isEmpty()) {
+                    subscription.live = true;
+                    break;
+                }
+                buffered = subscription.buffered;
+                subscription.buffered = new ArrayList<>();
+            }
+            for (MessageResponse message : buffered) {
+                if (!replayed.contains(message.getId()) && !send(emitter, message)) {
+                    return emitter;
+                }
+            }
+        }
+        return emitter;
+    }
+
+    /**
+     * Publishes a message to the employee's open streams once the current transaction commits.
+     */
+    public void publishAfterCommit(MessageResponse message) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(message);
+                }
+            });
+        } else {
+            publish(message);
+        }
+    }
+
+    public void publish(MessageResponse message) {
+        Set<Subscription> subscribers = subscriptions.get(message.getEmployeeCode());
+        if (subscribers == null) {
+            return;
+        }
+        for (Subscription subscription : subscribers) {
+            synchronized (subscription) {
+                if (!subscription.live) {
+                    subscription.buffered.add(message);
+                    continue;
+                }
+            }
+            sendExecutor.execute(() -> send(subscription.emitter, message));
+        }
+    }
+
+    // Keeps idle connections from being closed by proxies and detects clients that went away
+    @Scheduled(fixedDelayString = "${messages.stream.heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        subscriptions.values().forEach(subscribers -> subscribers.forEach(subscription -> sendExecutor.execute(() -> {
+            try {
+                subscription.emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException e) {
+                subscription.emitter.completeWithError(e);
+            }
+        })));
+    }
+
+    private boolean sendResync(SseEmitter emitter) {
+        try {
+            emitter.send(SseEmitter.event().name(RESYNC_EVENT).data(""));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping message stream: {}", e.getMessage());
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private boolean send(SseEmitter emitter, MessageResponse message) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(message.getId())
+                    .name(MESSAGE_EVENT)
+                    .data(message));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping message stream: {}", e.getMessage());
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    /**
+     * Missed messages to send when a stream opens; {@code resync} is set when they are not the
+     * complete gap, because the replay limit was hit or the last event has been archived.
+     */
+    public record Replay(List<MessageResponse> messages, boolean resync) {
+        public static Replay none() {
+            return new Replay(List.of(), false);
+        }
+    }
+
+    // Buffers live messages until the replay has been sent; guarded by its own monitor
+    private static final class Subscription {
+        private final SseEmitter emitter;
+        private List<MessageResponse> buffered = new ArrayList<>();
+        private boolean live;
+
+        private Subscription(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
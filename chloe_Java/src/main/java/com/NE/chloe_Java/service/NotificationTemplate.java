@@ -0,0 +1,200 @@
+package com.NE.chloe_Java.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Notification texts shared by in-app messages and emails. Messages only store the template id and
+ * a compact parameter payload; the text is rendered when the message is read.
+ * <p>
+ * Placeholders are written as {@code {name}} or {@code {name:format}}, where format is
+ * {@code money} (a plain decimal shown with thousands separators and two decimals) or
+ * {@code month} (a month number shown by its upper-case name). Each template is compiled once into literal
+ * and parameter segments, so rendering is a single pass with no format string parsing.
+ */
+public enum NotificationTemplate {
+
+    PAYSLIP_GENERATED(
+            "Payslip Generated",
+            "Dear {firstName}, your salary for {month:month}/{year} has been processed.\n" +
+                    "Gross Salary: RWF {gross:money}\n" +
+                    "Total Deductions: RWF {deductions:money}\n" +
+                    "Net Salary: RWF {net:money}\n" +
+                    "Status: PENDING",
+            "firstName", "month", "year", "gross", "deductions", "net"),
+
+    PAYSLIP_APPROVED(
+            "Payslip Approved and Paid",
+            "Your payslip for {month:month} {year} has been approved and paid.\n" +
+                    "Gross Salary: RWF {gross:money}\n" +
+                    "Total Allowances: RWF {allowances:money}\n" +
+                    "Total Deductions: RWF {deductions:money}\n" +
+                    "Net Salary: RWF {net:money}\n" +
+                    "Payment Date: {paidAt}",
+            "month", "year", "gross", "allowances", "deductions", "net", "paidAt"),
+
+    SALARY_PAID_EMAIL(
+            "Salary Payment Notification - {month:month} {year}",
+            "Dear {firstName},\n\n" +
+                    "Your salary for {month:month}/{year} from Rwanda Government amounting to RWF {net:money} " +
+                    "has been credited to your account {employeeCode} successfully.\n\n" +
+                    "Payment Details:\n" +
+                    "Gross Salary: RWF {gross:money}\n" +
+                    "Total Allowances: RWF {allowances:money}\n" +
+                    "Total Deductions: RWF {deductions:money}\n" +
+                    "Net Salary: RWF {net:money}\n\n" +
+                    "Best regards,\n" +
+                    "Payroll Management System",
+            "firstName", "month", "year", "employeeCode", "gross", "allowances", "deductions", "net");
+
+    // ASCII unit separator; never part of a name, number or date
+    private static final char SEPARATOR = '\u001F';
+
+    private final List<String> paramNames;
+    private final Segment[] subject;
+    private final Segment[] body;
+
+    NotificationTemplate(String subject, String body, String... paramNames) {
+        this.paramNames = List.of(paramNames);
+        this.subject = compile(subject);
+        this.body = compile(body);
+    }
+
+    /**
+     * Encodes parameter values, in the order the template declares them, into the payload stored
+     * with a message. Numbers are stored in plain form and only formatted when rendered.
+     */
+    public String encode(Object... values) {
+        if (values.length != paramNames.size()) {
+            throw new IllegalArgumentException(name() + " expects " + paramNames.size() + " parameters");
+        }
+        StringBuilder payload = new StringBuilder(64);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                payload.append(SEPARATOR);
+            }
+            Object value = values[i];
+            String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : String.valueOf(value);
+            payload.append(text.replace(SEPARATOR, ' '));
+        }
+        return payload.toString();
+    }
+
+    public String renderSubject(String payload) {
+        return render(subject, decode(payload));
+    }
+
+    public String renderBody(String payload) {
+        return render(body, decode(payload));
+    }
+
+    private String[] decode(String payload) {
+        String[] values = new String[paramNames.size()];
+        int start = 0;
+        for (int i = 0; i < values.length; i++) {
+            int end = payload == null ? -1 : payload.indexOf(SEPARATOR, start);
+            if (payload == null || start > payload.length()) {
+                values[i] = "";
+            } else if (end < 0 || i == values.length - 1) {
+                values[i] = payload.substring(start);
+                start = payload.length() + 1;
+            } else {
+                values[i] = payload.substring(start, end);
+                start = end + 1;
+            }
+        }
+        return values;
+    }
+
+    private static String render(Segment[] segments, String[] values) {
+        StringBuilder text = new StringBuilder(256);
+        for (Segment segment : segments) {
+            segment.appendTo(text, values);
+        }
+        return text.toString();
+    }
+
+    private Segment[] compile(String template) {
+        List<Segment> segments = new ArrayList<>();
+        int position = 0;
+        while (position < template.length()) {
+            int open = template.indexOf('{', position);
+            if (open < 0) {
+                segments.add(new Literal(template.substring(position)));
+                break;
+            }
+            if (open > position) {
+                segments.add(new Literal(template.substring(position, open)));
+            }
+
+            int close = template.indexOf('}', open);
+            String[] placeholder = template.substring(open + 1, close).split(":", 2);
+            int index = paramNames.indexOf(placeholder[0]);
+            if (index < 0) {
+                throw new IllegalStateException("Unknown parameter " + placeholder[0] + " in " + name());
+            }
+            segments.add(new Parameter(index, placeholder.length > 1 ? placeholder[1] : null));
+            position = close + 1;
+        }
+        return segments.toArray(new Segment[0]);
+    }
+
+    private interface Segment {
+        void appendTo(StringBuilder text, String[] values);
+    }
+
+    private record Literal(String text) implements Segment {
+        @Override
+        public void appendTo(StringBuilder out, String[] values) {
+            out.append(text);
+        }
+    }
+
+    private record Parameter(int index, String format) implements Segment {
+        @Override
+        public void appendTo(StringBuilder out, String[] values) {
+            String value = values[index];
+            if ("money".equals(format)) {
+                appendMoney(out, value);
+            } else if ("month".equals(format)) {
+                appendMonth(out, value);
+            } else {
+                out.append(value);
+            }
+        }
+    }
+
+    private static void appendMoney(StringBuilder out, String value) {
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(value).setScale(2, RoundingMode.HALF_UP);
+        } catch (NumberFormatException e) {
+            out.append(value);
+            return;
+        }
+
+        String digits = amount.abs().toPlainString();
+        int integerDigits = digits.indexOf('.');
+        if (amount.signum() < 0) {
+            out.append('-');
+        }
+        for (int i = 0; i < integerDigits; i++) {
+            if (i > 0 && (integerDigits - i) % 3 == 0) {
+                out.append(',');
+            }
+            out.append(digits.charAt(i));
+        }
+        out.append(digits, integerDigits, digits.length());
+    }
+
+    private static void appendMonth(StringBuilder out, String value) {
+        try {
+            out.append(Month.of(Integer.parseInt(value)).name());
+        } catch (RuntimeException e) {
+            out.append(value);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.NE.chloe_Java.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs password hash checks on a small, bounded pool so that a burst of logins cannot occupy
+ * every request thread with BCrypt. When the pool and its queue are full, new checks are
+ * rejected immediately instead of piling up.
+ */
+@Service
+@RequiredArgsConstructor
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${auth.hash.pool-size:4}")
+    private int poolSize;
+
+    @Value("${auth.hash.queue-capacity:64}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+    private Counter rejected;
+
+    // Compared against for unknown emails so they take as long as a wrong password
+    private String dummyHash;
+
+    @PostConstruct
+    void startExecutor() {
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.AbortPolicy());
+        dummyHash = passwordEncoder.encode(UUID.randomUUID().toString());
+
+        Gauge.builder("auth.hash.pool.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hash checks currently running")
+                .register(meterRegistry);
+        Gauge.builder("auth.hash.pool.queued", executor, e -> e.getQueue().size())
+                .description("Password hash checks waiting for a thread")
+                .register(meterRegistry);
+        rejected = Counter.builder("auth.hash.rejected")
+                .description("Password hash checks rejected because the pool was saturated")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Checks a raw password against a stored hash on the hashing pool. A null hash (unknown user)
+     * never matches. When the stored hash is weaker than the configured work factor, the result
+     * carries a fresh hash to store. Completes exceptionally with RejectedExecutionException
+     * when the pool is saturated.
+     */
+    public CompletableFuture<PasswordCheck> verify(String rawPassword, String encodedPassword) {
+        try {
+            return CompletableFuture.supplyAsync(() -> check(rawPassword, encodedPassword), executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private PasswordCheck check(String rawPassword, String encodedPassword) {
+        if (encodedPassword == null) {
+            passwordEncoder.matches(rawPassword, dummyHash);
+            return new PasswordCheck(false, null);
+        }
+        if (!passwordEncoder.matches(rawPassword, encodedPassword)) {
+            return new PasswordCheck(false, null);
+        }
+
+        String upgradedHash = passwordEncoder.upgradeEncoding(encodedPassword)
+                ? passwordEncoder.encode(rawPassword)
+                : null;
+        return new PasswordCheck(true, upgradedHash);
+    }
+
+    public record PasswordCheck(boolean matches, String upgradedHash) {
+    }
+}
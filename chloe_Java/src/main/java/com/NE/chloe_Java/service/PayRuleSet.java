@@ -0,0 +1,190 @@
+package com.NE.chloe_Java.service;
+
+import com.NE.chloe_Java.dto.deduction.DeductionRequest;
+import com.NE.chloe_Java.entity.Payslip;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.TreeMap;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * Immutable, precompiled set of salary rates. Rates are held as fixed-point longs so that a payslip
+ * is computed in a single pass over minor units (cents) instead of one BigDecimal division per
+ * component. Amounts that do not fit the fixed-point representation fall back to BigDecimal
+ * arithmetic, which rounds HALF_UP exactly like the fast path.
+ */
+public final class PayRuleSet {
+
+    private static final int MONEY_SCALE = 2;
+    private static final int RATE_SCALE = 4;
+    // cents * (percent * 10^RATE_SCALE) / 100 / 10^RATE_SCALE = cents * units / 10^6
+    private static final long RATE_DIVISOR = 1_000_000L;
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    // Rates used when the deductions table has no row for a component
+    private static final Map<String, BigDecimal> DEFAULT_RATES = Map.of(
+            DeductionRequest.EMPLOYEE_TAX, new BigDecimal("30.00"),
+            DeductionRequest.PENSION, new BigDecimal("6.00"),
+            DeductionRequest.MEDICAL_INSURANCE, new BigDecimal("5.00"),
+            DeductionRequest.HOUSING, new BigDecimal("14.00"),
+            DeductionRequest.TRANSPORT, new BigDecimal("14.00"),
+            DeductionRequest.OTHERS, new BigDecimal("5.00")
+    );
+
+    private final long version;
+    private final Rate housing;
+    private final Rate transport;
+    private final Rate employeeTax;
+    private final Rate pension;
+    private final Rate medicalInsurance;
+    private final Rate others;
+
+    private PayRuleSet(Map<String, BigDecimal> rates) {
+        this.housing = new Rate(rates.get(DeductionRequest.HOUSING));
+        this.transport = new Rate(rates.get(DeductionRequest.TRANSPORT));
+        this.employeeTax = new Rate(rates.get(DeductionRequest.EMPLOYEE_TAX));
+        this.pension = new Rate(rates.get(DeductionRequest.PENSION));
+        this.medicalInsurance = new Rate(rates.get(DeductionRequest.MEDICAL_INSURANCE));
+        this.others = new Rate(rates.get(DeductionRequest.OTHERS));
+        this.version = fingerprint(rates);
+    }
+
+    /**
+     * Compiles a rule set from configured deduction rates keyed by deduction name.
+     * Components missing from the map keep their default rate; unknown names are ignored.
+     */
+    public static PayRuleSet compile(Map<String, BigDecimal> configuredRates) {
+        Map<String, BigDecimal> rates = new TreeMap<>(DEFAULT_RATES);
+        configuredRates.forEach((name, rate) -> {
+            if (rates.containsKey(name) && rate != null) {
+                rates.put(name, rate);
+            }
+        });
+        return new PayRuleSet(rates);
+    }
+
+    public static PayRuleSet defaults() {
+        return compile(Map.of());
+    }
+
+    /**
+     * Stable identifier of the rates in this set; two rule sets with the same rates share a version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public void apply(Payslip payslip, BigDecimal baseSalary) {
+        payslip.setBaseSalary(baseSalary);
+        payslip.setRuleSetVersion(version);
+        try {
+            applyFixedPoint(payslip, toCents(baseSalary));
+        } catch (ArithmeticException e) {
+            // Base salary with sub-cent precision, or too large for long arithmetic
+            applyDecimal(payslip, baseSalary);
+        }
+    }
+
+    private void applyFixedPoint(Payslip payslip, long baseCents) {
+        long house = housing.percentOf(baseCents);
+        long transportAmount = transport.percentOf(baseCents);
+        long gross = Math.addExact(Math.addExact(baseCents, house), transportAmount);
+
+        long tax = employeeTax.percentOf(baseCents);
+        long pensionAmount = pension.percentOf(baseCents);
+        long medical = medicalInsurance.percentOf(baseCents);
+        long otherAmount = others.percentOf(baseCents);
+        long net = gross - tax - pensionAmount - medical - otherAmount;
+
+        payslip.setHouseAmount(toMoney(house));
+        payslip.setTransportAmount(toMoney(transportAmount));
+        payslip.setEmployeeTaxedAmount(toMoney(tax));
+        payslip.setPensionAmount(toMoney(pensionAmount));
+        payslip.setMedicalInsuranceAmount(toMoney(medical));
+        payslip.setOtherTaxedAmount(toMoney(otherAmount));
+        payslip.setGrossSalary(toMoney(gross));
+        payslip.setNetSalary(toMoney(net));
+    }
+
+    private void applyDecimal(Payslip payslip, BigDecimal baseSalary) {
+        BigDecimal house = housing.percentOf(baseSalary);
+        BigDecimal transportAmount = transport.percentOf(baseSalary);
+        BigDecimal gross = baseSalary.add(house).add(transportAmount);
+
+        BigDecimal tax = employeeTax.percentOf(baseSalary);
+        BigDecimal pensionAmount = pension.percentOf(baseSalary);
+        BigDecimal medical = medicalInsurance.percentOf(baseSalary);
+        BigDecimal otherAmount = others.percentOf(baseSalary);
+        BigDecimal totalDeductions = tax.add(pensionAmount).add(medical).add(otherAmount);
+
+        payslip.setHouseAmount(house);
+        payslip.setTransportAmount(transportAmount);
+        payslip.setEmployeeTaxedAmount(tax);
+        payslip.setPensionAmount(pensionAmount);
+        payslip.setMedicalInsuranceAmount(medical);
+        payslip.setOtherTaxedAmount(otherAmount);
+        payslip.setGrossSalary(gross);
+        payslip.setNetSalary(gross.subtract(totalDeductions));
+    }
+
+    private static long toCents(BigDecimal amount) {
+        if (amount.scale() > MONEY_SCALE) {
+            // Only exact cent amounts take the fast path, so results always match the decimal path
+            throw new ArithmeticException("Amount has sub-cent precision");
+        }
+        return amount.setScale(MONEY_SCALE).unscaledValue().longValueExact();
+    }
+
+    private static BigDecimal toMoney(long cents) {
+        return BigDecimal.valueOf(cents, MONEY_SCALE);
+    }
+
+    private static long fingerprint(Map<String, BigDecimal> rates) {
+        CRC32 crc = new CRC32();
+        rates.forEach((name, rate) -> {
+            crc.update(name.getBytes(StandardCharsets.UTF_8));
+            crc.update(rate.stripTrailingZeros().toPlainString().getBytes(StandardCharsets.UTF_8));
+        });
+        return crc.getValue();
+    }
+
+    private static final class Rate {
+        private final BigDecimal percentage;
+        private final long units;
+        private final boolean fixedPoint;
+
+        private Rate(BigDecimal percentage) {
+            this.percentage = percentage;
+            long scaled = 0;
+            boolean exact;
+            try {
+                scaled = percentage.setScale(RATE_SCALE).unscaledValue().longValueExact();
+                exact = true;
+            } catch (ArithmeticException e) {
+                exact = false;
+            }
+            this.units = scaled;
+            this.fixedPoint = exact;
+        }
+
+        private long percentOf(long cents) {
+            if (!fixedPoint) {
+                throw new ArithmeticException("Rate is not representable in fixed point");
+            }
+            long product = Math.multiplyExact(cents, units);
+            long quotient = product / RATE_DIVISOR;
+            long remainder = product % RATE_DIVISOR;
+            if (Math.abs(remainder) * 2 >= RATE_DIVISOR) {
+                quotient += Long.signum(product);
+            }
+            return quotient;
+        }
+
+        private BigDecimal percentOf(BigDecimal amount) {
+            return amount.multiply(percentage).divide(HUNDRED, MONEY_SCALE, RoundingMode.HALF_UP);
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.NE.chloe_Java.service;
+
+import com.NE.chloe_Java.dto.message.MessageResponse;
+import com.NE.chloe_Java.dto.payslip.PayrollCandidate;
+import com.NE.chloe_Java.dto.payslip.PayrollRunRequest;
+import com.NE.chloe_Java.dto.payslip.PayrollRunResponse;
+import com.NE.chloe_Java.entity.Employee;
+import com.NE.chloe_Java.entity.Employment;
+import com.NE.chloe_Java.entity.Payslip;
+import com.NE.chloe_Java.exception.ResourceNotFoundException;
+import com.NE.chloe_Java.repository.EmploymentRepository;
+import com.NE.chloe_Java.repository.PayslipRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates the payslips of every active employment for a month in one background run.
+ * Employments are read page by page as lightweight projections, each page is computed and
+ * written on a worker thread with JDBC batch inserts in its own transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PayrollRunService {
+
+    private static final String INSERT_PAYSLIP_SQL =
+            "INSERT INTO payslips (id, employee_id, employee_name, base_salary, rule_set_version, house_amount, " +
+                    "transport_amount, employee_taxed_amount, pension_amount, medical_insurance_amount, " +
+                    "other_taxed_amount, gross_salary, net_salary, month, year, status) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_MESSAGE_SQL =
+            "INSERT INTO messages (id, employee_id, subject, template_id, params, is_read, created_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int MAX_TRACKED_RUNS = 50;
+
+    private final EmploymentRepository employmentRepository;
+    private final PayslipRepository payslipRepository;
+    private final PayslipCalculator payslipCalculator;
+    private final SecurityService securityService;
+    private final UnreadMessageCounter unreadMessageCounter;
+    private final MessageStreamService messageStreamService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${payroll.run.page-size:500}")
+    private int pageSize;
+
+    @Value("${payroll.run.parallelism:4}")
+    private int parallelism;
+
+    private final Map<String, RunProgress> runs = Collections.synchronizedMap(
+            new LinkedHashMap<>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, RunProgress> eldest) {
+                    return size() > MAX_TRACKED_RUNS;
+                }
+            });
+
+    private ExecutorService runExecutor;
+    private ExecutorService chunkExecutor;
+
+    @PostConstruct
+    void startExecutors() {
+        runExecutor = Executors.newSingleThreadExecutor();
+        chunkExecutor = Executors.newFixedThreadPool(parallelism);
+    }
+
+    @PreDestroy
+    void stopExecutors() {
+        runExecutor.shutdownNow();
+        chunkExecutor.shutdownNow();
+    }
+
+    public PayrollRunResponse startRun(PayrollRunRequest request) {
+        if (!securityService.hasRole("MANAGER")) {
+            throw new AccessDeniedException("Only managers can run payroll");
+        }
+
+        RunProgress progress = new RunProgress(UUID.randomUUID().toString(), request.getMonth(), request.getYear());
+        runs.put(progress.runId, progress);
+        runExecutor.execute(() -> execute(progress));
+
+        return progress.toResponse();
+    }
+
+    public PayrollRunResponse getRun(String runId) {
+        if (!securityService.hasRole("MANAGER")) {
+            throw new AccessDeniedException("Only managers can view payroll runs");
+        }
+
+        RunProgress progress = runs.get(runId);
+        if (progress == null) {
+            throw new ResourceNotFoundException("Payroll run not found");
+        }
+        return progress.toResponse();
+    }
+
+    private void execute(RunProgress progress) {
+        try {
+            // Counted inside the try so a failing query marks the run FAILED instead of leaving it QUEUED
+            progress.start(employmentRepository.countByStatusAndEmployeeStatus(
+                    Employment.EmploymentStatus.ACTIVE, Employee.EmployeeStatus.ACTIVE));
+
+            // Employees that already have a payslip for the period are skipped, as generatePayslip would reject them
+            Set<String> handled = new HashSet<>(
+                    payslipRepository.findEmployeeCodesByMonthAndYear(progress.month, progress.year));
+
+            Semaphore inFlight = new Semaphore(parallelism);
+            List<CompletableFuture<Void>> chunks = new ArrayList<>();
+
+            Pageable limit = PageRequest.of(0, pageSize);
+            List<PayrollCandidate> page;
+            String afterCode = null;
+            do {
+                page = employmentRepository.findPayrollCandidates(
+                        Employment.EmploymentStatus.ACTIVE, Employee.EmployeeStatus.ACTIVE, afterCode, limit);
+
+                List<PayrollCandidate> chunk = new ArrayList<>(page.size());
+                for (PayrollCandidate candidate : page) {
+                    if (handled.add(candidate.employeeCode())) {
+                        chunk.add(candidate);
+                    } else {
+                        progress.skipped.incrementAndGet();
+                    }
+                }
+
+                if (!chunk.isEmpty()) {
+                    // Bound the number of pages held in memory to the number of workers
+                    inFlight.acquire();
+                    chunks.add(CompletableFuture
+                            .runAsync(() -> persistChunk(progress, chunk), chunkExecutor)
+                            .whenComplete((result, error) -> inFlight.release()));
+                }
+
+                if (!page.isEmpty()) {
+                    afterCode = page.get(page.size() - 1).employmentCode();
+                }
+            } while (page.size() == pageSize);
+
+            CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).join();
+            // Rows that could not be saved are reported, so the run is only complete without them
+            progress.finish(progress.failed.get() > 0 ? "PARTIAL" : "COMPLETED", null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            progress.finish("FAILED", "Payroll run interrupted");
+        } catch (Exception e) {
+            log.error("Payroll run {} failed: {}", progress.runId, e.getMessage());
+            progress.finish("FAILED", e.getMessage());
+        }
+
+        log.info("Payroll run {} for {}/{} finished: {} processed, {} skipped, {} failed in {} ms",
+                progress.runId, progress.month, progress.year, progress.processed.get(),
+                progress.skipped.get(), progress.failed.get(), progress.elapsedMillis());
+    }
+
+    private void persistChunk(RunProgress progress, List<PayrollCandidate> chunk) {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<Object[]> payslipRows = new ArrayList<>(chunk.size());
+            List<Object[]> messageRows = new ArrayList<>(chunk.size());
+            List<MessageResponse> messages = new ArrayList<>(chunk.size());
+            NotificationTemplate template = NotificationTemplate.PAYSLIP_GENERATED;
+
+            for (PayrollCandidate candidate : chunk) {
+                Payslip payslip = new Payslip();
+                payslipCalculator.applySalaryComponents(payslip, candidate.baseSalary());
+                payslip.setMonth(progress.month);
+                payslip.setYear(progress.year);
+
+                payslipRows.add(new Object[]{
+                        UUID.randomUUID().toString(),
+                        candidate.employeeCode(),
+                        candidate.firstName() + " " + candidate.lastName(),
+                        payslip.getBaseSalary(),
+                        payslip.getRuleSetVersion(),
+                        payslip.getHouseAmount(),
+                        payslip.getTransportAmount(),
+                        payslip.getEmployeeTaxedAmount(),
+                        payslip.getPensionAmount(),
+                        payslip.getMedicalInsuranceAmount(),
+                        payslip.getOtherTaxedAmount(),
+                        payslip.getGrossSalary(),
+                        payslip.getNetSalary(),
+                        progress.month,
+                        progress.year,
+                        Payslip.PayslipStatus.PENDING.name()
+                });
+
+                String params = PayslipService.payslipGeneratedParams(candidate.firstName(), payslip,
+                        payslipCalculator.calculateTotalDeductions(payslip));
+                String messageId = UUID.randomUUID().toString();
+                String subject = template.renderSubject(params);
+                messageRows.add(new Object[]{
+                        messageId,
+                        candidate.employeeCode(),
+                        subject,
+                        template.name(),
+                        params,
+                        false,
+                        Timestamp.valueOf(now)
+                });
+                messages.add(MessageResponse.builder()
+                        .id(messageId)
+                        .employeeCode(candidate.employeeCode())
+                        .employeeName(candidate.firstName() + " " + candidate.lastName())
+                        .subject(subject)
+                        .content(template.renderBody(params))
+                        .createdAt(now)
+                        .build());
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(INSERT_PAYSLIP_SQL, payslipRows);
+                    jdbcTemplate.batchUpdate(INSERT_MESSAGE_SQL, messageRows);
+                    unreadMessageCounter.incrementAll(chunk.stream().map(PayrollCandidate::employeeCode).toList());
+                });
+            } catch (DataAccessException e) {
+                // One bad row rolls the whole batch back; save the rows one by one so only it is lost
+                log.warn("Payroll run {} batch of {} payslips failed, retrying row by row: {}",
+                        progress.runId, chunk.size(), e.getMostSpecificCause().getMessage());
+                persistRows(progress, payslipRows, messageRows, messages);
+                return;
+            }
+            progress.processed.addAndGet(chunk.size());
+            messages.forEach(messageStreamService::publish);
+        } catch (Exception e) {
+            log.error("Payroll run {} failed to persist a chunk of {} payslips: {}",
+                    progress.runId, chunk.size(), e.getMessage());
+            progress.failed.addAndGet(chunk.size());
+        }
+    }
+
+    private void persistRows(RunProgress progress, List<Object[]> payslipRows, List<Object[]> messageRows,
+                             List<MessageResponse> messages) {
+        for (int i = 0; i < payslipRows.size(); i++) {
+            Object[] payslipRow = payslipRows.get(i);
+            Object[] messageRow = messageRows.get(i);
+            MessageResponse message = messages.get(i);
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.update(INSERT_PAYSLIP_SQL, payslipRow);
+                    jdbcTemplate.update(INSERT_MESSAGE_SQL, messageRow);
+                    unreadMessageCounter.increment(message.getEmployeeCode());
+                });
+                progress.processed.incrementAndGet();
+                messageStreamService.publish(message);
+            } catch (DuplicateKeyException e) {
+                // A payslip for the period was generated concurrently, as the up-front check would have skipped
+                progress.skipped.incrementAndGet();
+            } catch (DataAccessException e) {
+                log.error("Payroll run {} failed to save the payslip of {}: {}",
+                        progress.runId, message.getEmployeeCode(), e.getMostSpecificCause().getMessage());
+                progress.failed.incrementAndGet();
+            }
+        }
+    }
+
+    private static final class RunProgress {
+        private final String runId;
+        private final int month;
+        private final int year;
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private volatile long totalEmployees;
+        private volatile String status = "QUEUED";
+        private volatile String error;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile long startNanos;
+        private volatile long endNanos;
+
+        private RunProgress(String runId, int month, int year) {
+            this.runId = runId;
+            this.month = month;
+            this.year = year;
+        }
+
+        private void start(long totalEmployees) {
+            this.totalEmployees = totalEmployees;
+            this.startedAt = LocalDateTime.now();
+            this.startNanos = System.nanoTime();
+            this.status = "RUNNING";
+        }
+
+        private void finish(String status, String error) {
+            this.endNanos = System.nanoTime();
+            this.finishedAt = LocalDateTime.now();
+            this.error = error;
+            this.status = status;
+        }
+
+        private long elapsedMillis() {
+            if (startNanos == 0) {
+                return 0;
+            }
+            long end = endNanos != 0 ? endNanos : System.nanoTime();
+            return Duration.ofNanos(end - startNanos).toMillis();
+        }
+
+        private PayrollRunResponse toResponse() {
+            long elapsed = elapsedMillis();
+            long done = processed.get();
+            return PayrollRunResponse.builder()
+                    .runId(runId)
+                    .month(month)
+                    .year(year)
+                    .status(status)
+                    .totalEmployees(totalEmployees)
+                    .processed(done)
+                    .skipped(skipped.get())
+                    .failed(failed.get())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .elapsedMillis(elapsed)
+                    .payslipsPerSecond(elapsed > 0 ? done * 1000.0 / elapsed : 0)
+                    .error(error)
+                    .build();
+        }
+    }
+}
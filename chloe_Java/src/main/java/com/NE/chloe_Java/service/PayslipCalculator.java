@@ -0,0 +1,86 @@
+package com.NE.chloe_Java.service;
+
+import com.NE.chloe_Java.entity.Deduction;
+import com.NE.chloe_Java.entity.Payslip;
+import com.NE.chloe_Java.repository.DeductionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PayslipCalculator {
+
+    private final DeductionRepository deductionRepository;
+
+    // Compiled from the deductions table on first use and dropped whenever the rates change
+    private volatile PayRuleSet ruleSet;
+
+    /**
+     * Fills the base salary, allowance, deduction, gross and net amounts of the payslip and records
+     * the version of the rule set that produced them.
+     * Shared by single payslip generation and payroll runs so both produce identical figures.
+     */
+    public void applySalaryComponents(Payslip payslip, BigDecimal baseSalary) {
+        currentRuleSet().apply(payslip, baseSalary);
+    }
+
+    public BigDecimal calculateTotalDeductions(Payslip payslip) {
+        return payslip.getEmployeeTaxedAmount()
+                .add(payslip.getPensionAmount())
+                .add(payslip.getMedicalInsuranceAmount())
+                .add(payslip.getOtherTaxedAmount());
+    }
+
+    public PayRuleSet currentRuleSet() {
+        PayRuleSet current = ruleSet;
+        if (current == null) {
+            synchronized (this) {
+                if (ruleSet == null) {
+                    ruleSet = compileRuleSet();
+                }
+                current = ruleSet;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Drops the compiled rule set once the current transaction commits, so the next payslip
+     * is computed from the updated deductions table.
+     */
+    public void reloadAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate();
+                }
+            });
+        } else {
+            invalidate();
+        }
+    }
+
+    private synchronized void invalidate() {
+        ruleSet = null;
+    }
+
+    private PayRuleSet compileRuleSet() {
+        Map<String, BigDecimal> rates = new HashMap<>();
+        for (Deduction deduction : deductionRepository.findAll()) {
+            rates.put(deduction.getDeductionName(), deduction.getPercentage());
+        }
+
+        PayRuleSet compiled = PayRuleSet.compile(rates);
+        log.info("Compiled pay rule set version {} from {} deductions", compiled.getVersion(), rates.size());
+        return compiled;
+    }
+}
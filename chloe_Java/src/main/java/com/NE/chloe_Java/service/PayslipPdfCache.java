@@ -0,0 +1,239 @@
+package com.NE.chloe_Java.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Two-tier cache of rendered payslip PDFs keyed by payslip id and entity version.
+ * A size-bounded LRU map holds the hottest documents in memory in front of a directory
+ * of rendered files, so identical downloads are served without re-rendering.
+ * Because the version is part of the key, a changed payslip can never be served stale.
+ * The directory is bounded too: once it outgrows its byte budget the least recently
+ * used files are deleted, and a stored version replaces the older files of its payslip.
+ */
+@Component
+@Slf4j
+public class PayslipPdfCache {
+
+    @Value("${payslip.pdf.cache.directory:${java.io.tmpdir}/payslip-pdf-cache}")
+    private Path directory;
+
+    @Value("${payslip.pdf.cache.memory-max-bytes:67108864}")
+    private long memoryMaxBytes;
+
+    @Value("${payslip.pdf.cache.disk-max-bytes:1073741824}")
+    private long diskMaxBytes;
+
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(256, 0.75f, true);
+    private long memoryBytes;
+
+    // Approximate: files replaced in place are counted twice until the next trim recounts the directory
+    private final AtomicLong diskBytes = new AtomicLong();
+    private final Object trimLock = new Object();
+
+    @PostConstruct
+    void createDirectory() throws IOException {
+        Files.createDirectories(directory);
+        trimDisk();
+    }
+
+    public static String key(String payslipId, long version) {
+        return payslipId + "-" + version;
+    }
+
+    /**
+     * Returns the cached PDF without copying it: the shared in-memory array when hot, otherwise
+     * the file itself so it can be transferred straight from disk (with Range support).
+     */
+    public Resource find(String payslipId, long version) {
+        String key = key(payslipId, version);
+        byte[] pdf = getFromMemory(key);
+        if (pdf != null) {
+            return new ByteArrayResource(pdf);
+        }
+
+        Path file = fileFor(key);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        touch(file);
+        return new FileSystemResource(file);
+    }
+
+    /**
+     * Renders a PDF directly into the disk tier and returns the stored file.
+     */
+    public Resource store(String payslipId, long version, PdfContent content) throws IOException {
+        Path file = fileFor(key(payslipId, version));
+        Path temp = Files.createTempFile(directory, key(payslipId, version), ".tmp");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+            content.writeTo(out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        stored(payslipId, version, Files.size(file));
+        return new FileSystemResource(file);
+    }
+
+    public void put(String payslipId, long version, byte[] pdf) {
+        String key = key(payslipId, version);
+        putInMemory(key, pdf);
+
+        Path file = fileFor(key);
+        try {
+            // Write to a temporary file first so readers never see a partially written PDF
+            Path temp = Files.createTempFile(directory, key, ".tmp");
+            Files.write(temp, pdf);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            stored(payslipId, version, pdf.length);
+        } catch (IOException e) {
+            log.warn("Failed to store payslip PDF {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Removes every cached version of a payslip from both tiers.
+     */
+    public void evict(String payslipId) {
+        String prefix = payslipId + "-";
+        synchronized (memory) {
+            Iterator<Map.Entry<String, byte[]>> iterator = memory.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, byte[]> entry = iterator.next();
+                if (entry.getKey().startsWith(prefix)) {
+                    memoryBytes -= entry.getValue().length;
+                    iterator.remove();
+                }
+            }
+        }
+
+        deleteFiles(payslipId, null);
+    }
+
+    private void stored(String payslipId, long version, long size) {
+        // Older versions can never be served again, so they only take up space
+        deleteFiles(payslipId, fileFor(key(payslipId, version)));
+        if (diskBytes.addAndGet(size) > diskMaxBytes) {
+            trimDisk();
+        }
+    }
+
+    private void deleteFiles(String payslipId, Path keep) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, payslipId + "-*.pdf")) {
+            for (Path file : files) {
+                if (!file.equals(keep)) {
+                    long size = Files.size(file);
+                    if (Files.deleteIfExists(file)) {
+                        diskBytes.addAndGet(-size);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to evict cached PDFs of payslip {}: {}", payslipId, e.getMessage());
+        }
+    }
+
+    /**
+     * Recounts the directory and deletes the least recently used files until it fits its byte budget.
+     * Reads refresh a file's modification time, so it orders files by last use.
+     */
+    private void trimDisk() {
+        synchronized (trimLock) {
+            List<CachedFile> files = new ArrayList<>();
+            long total = 0;
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.pdf")) {
+                for (Path file : stream) {
+                    try {
+                        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                        files.add(new CachedFile(file, attributes.size(), attributes.lastModifiedTime()));
+                        total += attributes.size();
+                    } catch (NoSuchFileException e) {
+                        // Deleted concurrently
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Failed to scan the payslip PDF cache {}: {}", directory, e.getMessage());
+                return;
+            }
+
+            files.sort(Comparator.comparing(CachedFile::lastUsed));
+            for (Iterator<CachedFile> oldest = files.iterator(); total > diskMaxBytes && oldest.hasNext(); ) {
+                CachedFile file = oldest.next();
+                try {
+                    Files.deleteIfExists(file.path());
+                    total -= file.size();
+                } catch (IOException e) {
+                    log.warn("Failed to delete cached payslip PDF {}: {}", file.path(), e.getMessage());
+                }
+            }
+            diskBytes.set(total);
+        }
+    }
+
+    private void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // Only affects eviction order; the file may also have just been evicted
+        }
+    }
+
+    private byte[] getFromMemory(String key) {
+        synchronized (memory) {
+            return memory.get(key);
+        }
+    }
+
+    private void putInMemory(String key, byte[] pdf) {
+        if (pdf.length > memoryMaxBytes) {
+            return;
+        }
+        synchronized (memory) {
+            byte[] previous = memory.put(key, pdf);
+            if (previous != null) {
+                memoryBytes -= previous.length;
+            }
+            memoryBytes += pdf.length;
+
+            // Evict least recently used documents until the tier fits its byte budget
+            Iterator<byte[]> eldest = memory.values().iterator();
+            while (memoryBytes > memoryMaxBytes && eldest.hasNext()) {
+                memoryBytes -= eldest.next().length;
+                eldest.remove();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface PdfContent {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private record CachedFile(Path path, long size, FileTime lastUsed) {
+    }
+
+    private Path fileFor(String key) {
+        return directory.resolve(key + ".pdf");
+    }
+}
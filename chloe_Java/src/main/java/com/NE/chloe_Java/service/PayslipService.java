@@ -1,5 +1,6 @@
 package com.NE.chloe_Java.service;
 
+import com.NE.chloe_Java.dto.payslip.PayslipPageResponse;
 import com.NE.chloe_Java.dto.payslip.PayslipRequest;
 import com.NE.chloe_Java.dto.payslip.PayslipResponse;
 import com.NE.chloe_Java.entity.*;
@@ -9,50 +10,117 @@ import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.PdfPCell;
 import com.itextpdf.text.pdf.PdfPTable;
 import com.itextpdf.text.pdf.PdfWriter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import jakarta.mail.MessagingException;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.time.Month;
 import java.time.format.DateTimeFormatter;
 import java.time.format.TextStyle;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PayslipService {
 
-    // Predefined deduction rates
-    private static final BigDecimal EMPLOYEE_TAX_RATE = new BigDecimal("30.00");
-    private static final BigDecimal PENSION_RATE = new BigDecimal("6.00"); // Updated from 3% to 6%
-    private static final BigDecimal MEDICAL_INSURANCE_RATE = new BigDecimal("5.00");
-    private static final BigDecimal HOUSING_RATE = new BigDecimal("14.00");
-    private static final BigDecimal TRANSPORT_RATE = new BigDecimal("14.00");
-    private static final BigDecimal OTHERS_RATE = new BigDecimal("5.00");
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int STREAM_FLUSH_INTERVAL = 100;
+    private static final DateTimeFormatter PAYMENT_DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    // Shared by every rendered payslip; iText only reads these
+    private static final Font TITLE_FONT = new Font(Font.FontFamily.HELVETICA, 18, Font.BOLD);
+    private static final Font HEADER_FONT = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD);
+    private static final Font NORMAL_FONT = new Font(Font.FontFamily.HELVETICA, 12, Font.NORMAL);
 
     private final PayslipRepository payslipRepository;
     private final EmployeeRepository employeeRepository;
-    private final EmploymentRepository employmentRepository;
-    private final DeductionRepository deductionRepository;
+    private final EmployeeCache employeeCache;
     private final MessageService messageService;
     private final SecurityService securityService;
     private final EmailService emailService;
+    private final PayslipCalculator payslipCalculator;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final PayslipPdfCache pdfCache;
+
+    @Value("${payslip.export.parallelism:4}")
+    private int exportParallelism;
+
+    @Value("${payslip.export.batch-size:200}")
+    private int exportBatchSize;
+
+    @Value("${payslip.pdf.prerender-queue-capacity:100}")
+    private int prerenderQueueCapacity;
+
+    private ExecutorService exportExecutor;
+
+    // Pre-rendering is only a warm-up; when it falls behind, PDFs are rendered on first download instead
+    private ThreadPoolExecutor prerenderExecutor;
+
+    @PostConstruct
+    void startExportExecutor() {
+        exportExecutor = Executors.newFixedThreadPool(exportParallelism);
+        prerenderExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(prerenderQueueCapacity), new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @PreDestroy
+    void stopExportExecutor() {
+        exportExecutor.shutdownNow();
+        prerenderExecutor.shutdownNow();
+    }
 
 
 
@@ -69,74 +137,52 @@ public class PayslipService {
         }
 
         // Get employee and employment details
-        Employee employee = employeeRepository.findByCodeAndStatus(request.getEmployeeCode(),
-                        Employee.EmployeeStatus.ACTIVE)
+        EmployeeCache.CachedEmployee employee = employeeCache.findActiveEmployee(request.getEmployeeCode())
                 .orElseThrow(() -> new ResourceNotFoundException("Employee not found"));
 
-        Employment employment = employmentRepository.findByEmployeeCodeAndStatus(
-                        request.getEmployeeCode(), Employment.EmploymentStatus.ACTIVE)
-                .stream()
-                .findFirst()
+        EmployeeCache.CachedEmployment employment = employeeCache.findActiveEmployment(request.getEmployeeCode())
                 .orElseThrow(() -> new ResourceNotFoundException("Active employment not found"));
 
-        BigDecimal baseSalary = employment.getBaseSalary();
-
-        // Calculate allowances
-        BigDecimal houseAmount = calculatePercentage(baseSalary, HOUSING_RATE);
-        BigDecimal transportAmount = calculatePercentage(baseSalary, TRANSPORT_RATE);
-        BigDecimal grossSalary = baseSalary.add(houseAmount).add(transportAmount);
-
-        // Calculate deductions
-        BigDecimal employeeTax = calculatePercentage(baseSalary, EMPLOYEE_TAX_RATE);
-        BigDecimal pension = calculatePercentage(baseSalary, PENSION_RATE);
-        BigDecimal medicalInsurance = calculatePercentage(baseSalary, MEDICAL_INSURANCE_RATE);
-        BigDecimal others = calculatePercentage(baseSalary, OTHERS_RATE);
-
-        BigDecimal totalDeductions = employeeTax.add(pension).add(medicalInsurance).add(others);
-        BigDecimal netSalary = grossSalary.subtract(totalDeductions);
-
         // Create and save payslip
         Payslip payslip = new Payslip();
-        payslip.setEmployee(employee);
-        payslip.setHouseAmount(houseAmount);
-        payslip.setTransportAmount(transportAmount);
-        payslip.setEmployeeTaxedAmount(employeeTax);
-        payslip.setPensionAmount(pension);
-        payslip.setMedicalInsuranceAmount(medicalInsurance);
-        payslip.setOtherTaxedAmount(others);
-        payslip.setGrossSalary(grossSalary);
-        payslip.setNetSalary(netSalary);
+        payslip.setEmployee(employeeRepository.getReferenceById(employee.code()));
+        payslip.setEmployeeName(employee.fullName());
+        payslipCalculator.applySalaryComponents(payslip, employment.baseSalary());
         payslip.setMonth(request.getMonth());
         payslip.setYear(request.getYear());
         payslip.setStatus(Payslip.PayslipStatus.PENDING);
 
-        Payslip savedPayslip = payslipRepository.save(payslip);
+        Payslip savedPayslip;
+        try {
+            // Flush now so a concurrent duplicate trips the unique (employee, year, month) constraint here
+            savedPayslip = payslipRepository.saveAndFlush(payslip);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException("Payslip already exists for this month and year");
+        }
 
         // Notify employee
-        String message = String.format(
-                "Dear %s, your salary for %s/%d has been processed.\n" +
-                        "Gross Salary: RWF %,.2f\n" +
-                        "Total Deductions: RWF %,.2f\n" +
-                        "Net Salary: RWF %,.2f\n" +
-                        "Status: PENDING",
-                employee.getFirstName(),
-                getMonthName(request.getMonth()),
-                request.getYear(),
-                grossSalary,
-                totalDeductions,
-                netSalary
-        );
-
-        messageService.createSalaryNotification(employee.getCode(), "Payslip Generated", message);
+        messageService.createSalaryNotification(employee.code(), NotificationTemplate.PAYSLIP_GENERATED,
+                payslipGeneratedParams(employee.firstName(), savedPayslip,
+                        payslipCalculator.calculateTotalDeductions(savedPayslip)));
 
         return mapToPayslipResponse(savedPayslip);
     }
 
-    private BigDecimal calculatePercentage(BigDecimal amount, BigDecimal percentage) {
-        return amount.multiply(percentage).divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
+    /**
+     * Encodes the parameters of the notification sent when a payslip is generated. Package-private so
+     * that payroll runs notify employees with exactly the same template as single generation.
+     */
+    static String payslipGeneratedParams(String firstName, Payslip payslip, BigDecimal totalDeductions) {
+        return NotificationTemplate.PAYSLIP_GENERATED.encode(
+                firstName,
+                payslip.getMonth(),
+                payslip.getYear(),
+                payslip.getGrossSalary(),
+                totalDeductions,
+                payslip.getNetSalary()
+        );
     }
 
-
     @Transactional
     public PayslipResponse approvePayslip(String payslipId) {
         if (!securityService.hasRole("ADMIN")) {
@@ -151,49 +197,43 @@ public class PayslipService {
         }
 
         payslip.setStatus(Payslip.PayslipStatus.PAID);
-        Payslip savedPayslip = payslipRepository.save(payslip);
+        // Flush so the entity version is incremented before the PDF is cached under it
+        Payslip savedPayslip = payslipRepository.saveAndFlush(payslip);
+        cachePdfAfterCommit(savedPayslip);
 
         BigDecimal totalAllowances = payslip.getHouseAmount().add(payslip.getTransportAmount());
         BigDecimal totalDeductions = calculateTotalDeductions(payslip);
 
         // Create and save notification message
-        notifyEmployee(payslip.getEmployee().getCode(), "Payslip Approved and Paid",
-                createPayslipApprovalMessage(payslip, totalAllowances, totalDeductions));
+        messageService.createSalaryNotification(payslip.getEmployee().getCode(), NotificationTemplate.PAYSLIP_APPROVED,
+                NotificationTemplate.PAYSLIP_APPROVED.encode(
+                        payslip.getMonth(),
+                        payslip.getYear(),
+                        payslip.getGrossSalary(),
+                        totalAllowances,
+                        totalDeductions,
+                        payslip.getNetSalary(),
+                        LocalDateTime.now().format(PAYMENT_DATE_FORMAT)
+                ));
+
+        // Queue the email in the outbox; it is delivered by EmailOutboxDispatcher after commit
+        Employee employee = payslip.getEmployee();
+        String emailParams = NotificationTemplate.SALARY_PAID_EMAIL.encode(
+                employee.getFirstName(),
+                payslip.getMonth(),
+                payslip.getYear(),
+                employee.getCode(),
+                payslip.getGrossSalary(),
+                totalAllowances,
+                totalDeductions,
+                payslip.getNetSalary()
+        );
 
-        // Send email notification
-        try {
-            Employee employee = payslip.getEmployee();
-            String emailContent = String.format(
-                    "Dear %s,\n\n" +
-                            "Your salary for %s/%d from Rwanda Government amounting to RWF %,.2f " +
-                            "has been credited to your account %s successfully.\n\n" +
-                            "Payment Details:\n" +
-                            "Gross Salary: RWF %,.2f\n" +
-                            "Total Allowances: RWF %,.2f\n" +
-                            "Total Deductions: RWF %,.2f\n" +
-                            "Net Salary: RWF %,.2f\n\n" +
-                            "Best regards,\n" +
-                            "Payroll Management System",
-                    employee.getFirstName(),
-                    getMonthName(payslip.getMonth()),
-                    payslip.getYear(),
-                    payslip.getNetSalary(),
-                    employee.getCode(),
-                    payslip.getGrossSalary(),
-                    totalAllowances,
-                    totalDeductions,
-                    payslip.getNetSalary()
-            );
-
-            emailService.sendEmail(
-                    employee.getEmail(),
-                    "Salary Payment Notification - " + getMonthName(payslip.getMonth()) + " " + payslip.getYear(),
-                    emailContent
-            );
-        } catch (MessagingException e) {
-            log.error("Failed to send email notification for payslip {}: {}", payslipId, e.getMessage());
-            // Don't throw exception - we don't want to roll back the transaction if email fails
-        }
+        emailService.enqueueEmail(
+                employee.getEmail(),
+                NotificationTemplate.SALARY_PAID_EMAIL.renderSubject(emailParams),
+                NotificationTemplate.SALARY_PAID_EMAIL.renderBody(emailParams)
+        );
 
         return mapToPayslipResponse(savedPayslip);
     }
@@ -205,7 +245,7 @@ public class PayslipService {
             throw new AccessDeniedException("Access denied");
         }
 
-        return payslipRepository.findByEmployeeCodeAndMonthAndYear(employeeCode, null, null)
+        return payslipRepository.findByEmployeeCodeOrderByYearDescMonthDesc(employeeCode)
                 .stream()
                 .map(this::mapToPayslipResponse)
                 .collect(Collectors.toList());
@@ -224,43 +264,323 @@ public class PayslipService {
     }
 
     @Transactional(readOnly = true)
-    public ResponseEntity<Resource> downloadPayslip(String payslipId) {
+    public PayslipPageResponse getPayslipPageByEmployee(String employeeCode, String cursor, int size) {
+        if (!securityService.hasRole("MANAGER") && !securityService.isCurrentUser(employeeCode)) {
+            throw new AccessDeniedException("Access denied");
+        }
+
+        Pageable limit = PageRequest.of(0, clampPageSize(size));
+        List<Payslip> payslips;
+        if (cursor == null || cursor.isBlank()) {
+            payslips = payslipRepository.findByEmployeeCodeOrderByYearDescMonthDescIdDesc(employeeCode, limit);
+        } else {
+            String[] key = decodeCursor(cursor, 3);
+            payslips = payslipRepository.findEmployeePageAfter(employeeCode, parseCursorPart(key[0]),
+                    parseCursorPart(key[1]), key[2], limit);
+        }
+
+        String nextCursor = null;
+        if (payslips.size() == limit.getPageSize()) {
+            Payslip last = payslips.get(payslips.size() - 1);
+            nextCursor = encodeCursor(last.getYear() + ":" + last.getMonth() + ":" + last.getId());
+        }
+        return toPage(payslips, nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public PayslipPageResponse getPendingPayslipPage(Integer month, Integer year, String cursor, int size) {
+        if (!securityService.hasRole("MANAGER")) {
+            throw new AccessDeniedException("Only managers can view pending payslips");
+        }
+
+        Pageable limit = PageRequest.of(0, clampPageSize(size));
+        List<Payslip> payslips;
+        if (cursor == null || cursor.isBlank()) {
+            payslips = payslipRepository.findByMonthAndYearAndStatusOrderByIdAsc(month, year,
+                    Payslip.PayslipStatus.PENDING, limit);
+        } else {
+            payslips = payslipRepository.findByMonthAndYearAndStatusAndIdGreaterThanOrderByIdAsc(month, year,
+                    Payslip.PayslipStatus.PENDING, decodeCursor(cursor, 1)[0], limit);
+        }
+
+        String nextCursor = payslips.size() == limit.getPageSize()
+                ? encodeCursor(payslips.get(payslips.size() - 1).getId())
+                : null;
+        return toPage(payslips, nextCursor);
+    }
+
+    public StreamingResponseBody streamPayslipsByEmployee(String employeeCode) {
+        if (!securityService.hasRole("MANAGER") && !securityService.isCurrentUser(employeeCode)) {
+            throw new AccessDeniedException("Access denied");
+        }
+
+        return streamPayslips(() -> payslipRepository.streamByEmployeeCodeOrderByYearDescMonthDescIdDesc(employeeCode));
+    }
+
+    public StreamingResponseBody streamPendingPayslips(Integer month, Integer year) {
+        if (!securityService.hasRole("MANAGER")) {
+            throw new AccessDeniedException("Only managers can view pending payslips");
+        }
+
+        return streamPayslips(() -> payslipRepository.streamByMonthAndYearAndStatusOrderByIdAsc(month, year,
+                Payslip.PayslipStatus.PENDING));
+    }
+
+    @Transactional(readOnly = true)
+    public ResponseEntity<?> downloadPayslip(String payslipId, String ifNoneMatch) {
         Payslip payslip = payslipRepository.findById(payslipId)
                 .orElseThrow(() -> new ResourceNotFoundException("Payslip not found"));
 
-        if (!securityService.hasRole("MANAGER") && !securityService.isPayslipOwner(payslipId)) {
+        // The payslip is already loaded, so ownership is checked against it without another query
+        if (!securityService.hasRole("MANAGER") && !securityService.isCurrentUser(payslip.getEmployee().getCode())) {
             throw new AccessDeniedException("Access denied");
         }
 
+        String etag = "\"" + PayslipPdfCache.key(payslip.getId(), payslip.getVersion()) + "\"";
+        if (matchesEtag(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        // A paid payslip never changes, pending ones must be revalidated against the ETag
+        boolean paid = payslip.getStatus() == Payslip.PayslipStatus.PAID;
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .eTag(etag)
+                .cacheControl(paid
+                        ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable()
+                        : CacheControl.noCache().cachePrivate())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=payslip-" + payslip.getEmployee().getCode() +
+                                "-" + payslip.getMonth() + "-" + payslip.getYear() + ".pdf");
+
+        Resource cached = pdfCache.find(payslip.getId(), payslip.getVersion());
+        if (cached != null) {
+            return response.body(cached);
+        }
+
+        if (paid) {
+            // Render once straight into the disk tier and serve the file from there
+            try {
+                return response.body(pdfCache.store(payslip.getId(), payslip.getVersion(),
+                        out -> renderPayslipPdf(payslip, out)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to generate PDF", e);
+            }
+        }
+
+        // Pending payslips are not cached: render directly into the response
+        StreamingResponseBody body = out -> renderPayslipPdf(payslip, out);
+        return response.body(body);
+    }
+
+    public StreamingResponseBody exportPayslips(Integer month, Integer year) {
+        if (!securityService.hasAnyRole("MANAGER", "ADMIN")) {
+            throw new AccessDeniedException("Only managers and admins can export payslips");
+        }
+
+        return outputStream -> writeZip(month, year, outputStream);
+    }
+
+    // Helper methods
+    /**
+     * Renders PDFs on the export pool and writes them to the archive in id order. At most
+     * twice the pool size of documents are in flight; a slow client blocks the writer, which in
+     * turn stops new renders from being submitted. Ids and then each batch of rows are read in
+     * their own short transaction, so no connection is held while the archive is streamed.
+     */
+    private void writeZip(Integer month, Integer year, OutputStream outputStream) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        List<String> ids = readOnly.execute(status -> payslipRepository.findIdsByMonthAndYear(month, year));
+
+        int window = exportParallelism * 2;
+        Deque<CompletableFuture<ZipPart>> inFlight = new ArrayDeque<>(window);
+
+        try {
+            ZipOutputStream zip = new ZipOutputStream(outputStream);
+            // PDFs are already compressed internally
+            zip.setLevel(Deflater.BEST_SPEED);
+
+            for (int from = 0; from < ids.size(); from += exportBatchSize) {
+                List<String> batchIds = ids.subList(from, Math.min(from + exportBatchSize, ids.size()));
+                List<Payslip> batch = readOnly.execute(status -> payslipRepository.findByIdInOrderByIdAsc(batchIds));
+
+                for (Payslip payslip : batch) {
+                    inFlight.addLast(CompletableFuture.supplyAsync(() -> renderZipPart(payslip), exportExecutor));
+
+                    if (inFlight.size() >= window) {
+                        writeZipEntry(zip, inFlight.removeFirst().join());
+                    }
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                writeZipEntry(zip, inFlight.removeFirst().join());
+            }
+            zip.finish();
+            zip.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to export payslips", e);
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private ZipPart renderZipPart(Payslip payslip) {
+        String name = "payslip-" + payslip.getEmployee().getCode() + "-" +
+                payslip.getMonth() + "-" + payslip.getYear() + ".pdf";
+
+        Resource cached = pdfCache.find(payslip.getId(), payslip.getVersion());
+        if (cached != null) {
+            return new ZipPart(name, cached);
+        }
+        try {
+            return new ZipPart(name, new ByteArrayResource(renderPayslipPdf(payslip)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to generate PDF for payslip " + payslip.getId(), e);
+        }
+    }
+
+    private void writeZipEntry(ZipOutputStream zip, ZipPart part) throws IOException {
+        zip.putNextEntry(new ZipEntry(part.name()));
+        try (InputStream in = part.content().getInputStream()) {
+            in.transferTo(zip);
+        }
+        zip.closeEntry();
+    }
+
+    private record ZipPart(String name, Resource content) {
+    }
+
+    private byte[] renderPayslipPdf(Payslip payslip) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        renderPayslipPdf(payslip, baos);
+        return baos.toByteArray();
+    }
+
+    // Writes the PDF as it is laid out; the target stream is flushed but left open for the caller
+    private void renderPayslipPdf(Payslip payslip, OutputStream out) throws IOException {
         try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
             Document document = new Document(PageSize.A4);
-            PdfWriter.getInstance(document, baos);
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setCloseStream(false);
 
             document.open();
             addPayslipContent(document, payslip);
             document.close();
+            out.flush();
+        } catch (DocumentException e) {
+            throw new IOException("Failed to generate PDF", e);
+        }
+    }
 
-            ByteArrayResource resource = new ByteArrayResource(baos.toByteArray());
+    private void cachePdfAfterCommit(Payslip payslip) {
+        String payslipId = payslip.getId();
+        long version = payslip.getVersion();
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // Rendered off the request thread; only snapshot columns of the payslip are read
+                prerenderExecutor.execute(() -> {
+                    try {
+                        pdfCache.evict(payslipId);
+                        pdfCache.put(payslipId, version, renderPayslipPdf(payslip));
+                    } catch (IOException e) {
+                        log.warn("Failed to pre-render PDF for payslip {}: {}", payslipId, e.getMessage());
+                    }
+                });
+            }
+        });
+    }
 
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_PDF)
-                    .header(HttpHeaders.CONTENT_DISPOSITION,
-                            "attachment; filename=payslip-" + payslip.getEmployee().getCode() +
-                                    "-" + payslip.getMonth() + "-" + payslip.getYear() + ".pdf")
-                    .body(resource);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to generate PDF", e);
+    private boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
         }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    // Helper methods
-    private void addPayslipContent(Document document, Payslip payslip) throws DocumentException {
-        Font titleFont = new Font(Font.FontFamily.HELVETICA, 18, Font.BOLD);
-        Font headerFont = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD);
-        Font normalFont = new Font(Font.FontFamily.HELVETICA, 12, Font.NORMAL);
+    private StreamingResponseBody streamPayslips(Supplier<Stream<Payslip>> query) {
+        return outputStream -> {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readOnly.executeWithoutResult(status -> writeNdjson(query, outputStream));
+        };
+    }
+
+    // Writes one JSON document per line and detaches each row so heap stays flat regardless of row count
+    private void writeNdjson(Supplier<Stream<Payslip>> query, OutputStream outputStream) {
+        ObjectWriter writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (Stream<Payslip> payslips = query.get()) {
+            Iterator<Payslip> iterator = payslips.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                Payslip payslip = iterator.next();
+                writer.writeValue(outputStream, mapToPayslipResponse(payslip));
+                outputStream.write('\n');
+                entityManager.detach(payslip);
+
+                if (++written % STREAM_FLUSH_INTERVAL == 0) {
+                    outputStream.flush();
+                }
+            }
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to stream payslips", e);
+        }
+    }
+
+    private PayslipPageResponse toPage(List<Payslip> payslips, String nextCursor) {
+        return PayslipPageResponse.builder()
+                .items(payslips.stream()
+                        .map(this::mapToPayslipResponse)
+                        .collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
 
-        Paragraph title = new Paragraph("PAYSLIP", titleFont);
+    private String encodeCursor(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes());
+    }
+
+    private String[] decodeCursor(String cursor, int parts) {
+        try {
+            String[] key = new String(Base64.getUrlDecoder().decode(cursor)).split(":", parts);
+            if (key.length != parts) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return key;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private Integer parseCursorPart(String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private void addPayslipContent(Document document, Payslip payslip) throws DocumentException {
+        Paragraph title = new Paragraph("PAYSLIP", TITLE_FONT);
         title.setAlignment(Element.ALIGN_CENTER);
         title.setSpacingAfter(20);
         document.add(title);
@@ -268,11 +588,10 @@ public class PayslipService {
         // Employee Details
         PdfPTable employeeTable = new PdfPTable(2);
         employeeTable.setWidthPercentage(100);
-        addTableRow(employeeTable, "Employee Name", payslip.getEmployee().getFirstName() + " " +
-                payslip.getEmployee().getLastName(), headerFont, normalFont);
-        addTableRow(employeeTable, "Employee Code", payslip.getEmployee().getCode(), headerFont, normalFont);
+        addTableRow(employeeTable, "Employee Name", payslip.getEmployeeName(), HEADER_FONT, NORMAL_FONT);
+        addTableRow(employeeTable, "Employee Code", payslip.getEmployee().getCode(), HEADER_FONT, NORMAL_FONT);
         addTableRow(employeeTable, "Month/Year", getMonthName(payslip.getMonth()) + " " +
-                payslip.getYear(), headerFont, normalFont);
+                payslip.getYear(), HEADER_FONT, NORMAL_FONT);
         document.add(employeeTable);
 
         // Salary Details
@@ -281,33 +600,32 @@ public class PayslipService {
         salaryTable.setSpacingBefore(20);
 
         // Earnings
-        addTableRow(salaryTable, "EARNINGS", "", headerFont, normalFont);
-        addTableRow(salaryTable, "Basic Salary", formatCurrency(payslip.getGrossSalary()
-                        .subtract(payslip.getHouseAmount()).subtract(payslip.getTransportAmount())),
-                headerFont, normalFont);
+        addTableRow(salaryTable, "EARNINGS", "", HEADER_FONT, NORMAL_FONT);
+        addTableRow(salaryTable, "Basic Salary", formatCurrency(payslip.getBaseSalary()),
+                HEADER_FONT, NORMAL_FONT);
         addTableRow(salaryTable, "House Allowance", formatCurrency(payslip.getHouseAmount()),
-                headerFont, normalFont);
+                HEADER_FONT, NORMAL_FONT);
         addTableRow(salaryTable, "Transport Allowance", formatCurrency(payslip.getTransportAmount()),
-                headerFont, normalFont);
+                HEADER_FONT, NORMAL_FONT);
         addTableRow(salaryTable, "Gross Salary", formatCurrency(payslip.getGrossSalary()),
-                headerFont, normalFont);
+                HEADER_FONT, NORMAL_FONT);
 
         // Deductions
-        addTableRow(salaryTable, "DEDUCTIONS", "", headerFont, normalFont);
+        addTableRow(salaryTable, "DEDUCTIONS", "", HEADER_FONT, NORMAL_FONT);
         addTableRow(salaryTable, "Tax", formatCurrency(payslip.getEmployeeTaxedAmount()),
-                headerFont, normalFont);
+                HEADER_FONT, NORMAL_FONT);
         addTableRow(salaryTable, "Pension", formatCurrency(payslip.getPensionAmount()),
-                headerFont, normalFont);
+                HEADER_FONT, NORMAL_FONT);
         addTableRow(salaryTable, "Medical Insurance", formatCurrency(payslip.getMedicalInsuranceAmount()),
-                headerFont, normalFont);
+                HEADER_FONT, NORMAL_FONT);
         addTableRow(salaryTable, "Other Deductions", formatCurrency(payslip.getOtherTaxedAmount()),
-                headerFont, normalFont);
+                HEADER_FONT, NORMAL_FONT);
         addTableRow(salaryTable, "Total Deductions", formatCurrency(calculateTotalDeductions(payslip)),
-                headerFont, normalFont);
+                HEADER_FONT, NORMAL_FONT);
 
         // Net Salary
         addTableRow(salaryTable, "NET SALARY", formatCurrency(payslip.getNetSalary()),
-                headerFont, normalFont);
+                HEADER_FONT, NORMAL_FONT);
 
         document.add(salaryTable);
     }
@@ -327,84 +645,21 @@ public class PayslipService {
         return String.format("RWF %,.2f", amount);
     }
 
-    private void notifyEmployee(String employeeCode, String subject, String content) {
-        messageService.createSalaryNotification(employeeCode, subject, content);
-    }
-
-    private String createPayslipGenerationMessage(int month, int year, BigDecimal baseSalary,
-                                                  BigDecimal totalAllowances, BigDecimal totalDeductions,
-                                                  BigDecimal netSalary) {
-        return String.format(
-                "Your payslip for %s %d has been generated.\n" +
-                        "Basic Salary: %s\n" +
-                        "Total Allowances: %s\n" +
-                        "Total Deductions: %s\n" +
-                        "Net Salary: %s\n\n" +
-                        "Status: %s",
-                getMonthName(month),
-                year,
-                formatCurrency(baseSalary),
-                formatCurrency(totalAllowances),
-                formatCurrency(totalDeductions),
-                formatCurrency(netSalary),
-                Payslip.PayslipStatus.PENDING
-        );
-    }
-
-    private String createPayslipApprovalMessage(Payslip payslip, BigDecimal totalAllowances,
-                                                BigDecimal totalDeductions) {
-        return String.format(
-                "Your payslip for %s %d has been approved and paid.\n" +
-                        "Gross Salary: %s\n" +
-                        "Total Allowances: %s\n" +
-                        "Total Deductions: %s\n" +
-                        "Net Salary: %s\n" +
-                        "Payment Date: %s",
-                getMonthName(payslip.getMonth()),
-                payslip.getYear(),
-                formatCurrency(payslip.getGrossSalary()),
-                formatCurrency(totalAllowances),
-                formatCurrency(totalDeductions),
-                formatCurrency(payslip.getNetSalary()),
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"))
-        );
-    }
-
     private BigDecimal calculateTotalDeductions(Payslip payslip) {
-        return payslip.getEmployeeTaxedAmount()
-                .add(payslip.getPensionAmount())
-                .add(payslip.getMedicalInsuranceAmount())
-                .add(payslip.getOtherTaxedAmount());
-    }
-
-    private BigDecimal getDeductionRate(String deductionName) {
-        return deductionRepository.findByDeductionName(deductionName)
-                .orElseThrow(() -> new ResourceNotFoundException("Deduction not found: " + deductionName))
-                .getPercentage();
+        return payslipCalculator.calculateTotalDeductions(payslip);
     }
 
-    private BigDecimal calculateAmount(BigDecimal base, BigDecimal rate) {
-        return base.multiply(rate).divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
-    }
-
-    private String getMonthName(int month) {
+    private static String getMonthName(int month) {
         return java.time.Month.of(month).toString();
     }
 
     private PayslipResponse mapToPayslipResponse(Payslip payslip) {
-        Employment activeEmployment = employmentRepository.findByEmployeeCodeAndStatus(
-                        payslip.getEmployee().getCode(), Employment.EmploymentStatus.ACTIVE)
-                .stream()
-                .findFirst()
-                .orElse(null);
-
+        // Only the employee id is read from the association, which does not initialize the proxy
         PayslipResponse response = new PayslipResponse();
         response.setId(payslip.getId());
         response.setEmployeeCode(payslip.getEmployee().getCode());
-        response.setEmployeeName(payslip.getEmployee().getFirstName() + " " +
-                payslip.getEmployee().getLastName());
-        response.setBaseSalary(activeEmployment != null ?
-                activeEmployment.getBaseSalary() : BigDecimal.ZERO);
+        response.setEmployeeName(payslip.getEmployeeName());
+        response.setBaseSalary(payslip.getBaseSalary());
         response.setHouseAmount(payslip.getHouseAmount());
         response.setTransportAmount(payslip.getTransportAmount());
         response.setEmployeeTaxedAmount(payslip.getEmployeeTaxedAmount());
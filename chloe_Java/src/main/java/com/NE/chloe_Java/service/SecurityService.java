@@ -1,17 +1,21 @@
 package com.NE.chloe_Java.service;
 
 import com.NE.chloe_Java.entity.Employee;
-import com.NE.chloe_Java.entity.Payslip;
 import com.NE.chloe_Java.repository.EmployeeRepository;
+import com.NE.chloe_Java.repository.EmploymentRepository;
+import com.NE.chloe_Java.repository.MessageRepository;
 import com.NE.chloe_Java.repository.PayslipRepository;
+import com.NE.chloe_Java.security.EmployeePrincipal;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
-import java.util.Optional;
 import java.util.Set;
+import java.util.function.BooleanSupplier;
 
 @Service
 @RequiredArgsConstructor
@@ -19,6 +23,8 @@ public class SecurityService {
 
     private final EmployeeRepository employeeRepository;
     private final PayslipRepository payslipRepository;
+    private final MessageRepository messageRepository;
+    private final EmploymentRepository employmentRepository;
 
     public boolean hasRole(String role) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -40,56 +46,58 @@ public class SecurityService {
         return false;
     }
 
-    @Transactional(readOnly = true)
     public boolean isCurrentUser(String employeeCode) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null) return false;
-
-        Optional<Employee> employee = employeeRepository.findByEmail(authentication.getName());
-        return employee.map(e -> e.getCode().equals(employeeCode)).orElse(false);
+        EmployeePrincipal principal = getCurrentPrincipal();
+        return principal != null && principal.code().equals(employeeCode);
     }
 
     @Transactional(readOnly = true)
     public boolean isPayslipOwner(String payslipId) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null) return false;
-
-        Optional<Employee> employee = employeeRepository.findByEmail(authentication.getName());
-        if (employee.isEmpty()) return false;
+        String currentUserCode = getCurrentUserCode();
+        if (currentUserCode == null) return false;
 
-        Optional<Payslip> payslip = payslipRepository.findById(payslipId);
-        return payslip.map(p -> p.getEmployee().getCode().equals(employee.get().getCode())).orElse(false);
+        return memoizeForRequest("payslipOwner:" + payslipId,
+                () -> payslipRepository.existsByIdAndEmployeeCode(payslipId, currentUserCode));
     }
 
     @Transactional(readOnly = true)
-    public Set<String> getCurrentUserRoles() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null) return Set.of();
+    public boolean isMessageOwner(String messageId) {
+        String currentUserCode = getCurrentUserCode();
+        if (currentUserCode == null) return false;
 
-        Optional<Employee> employee = employeeRepository.findByEmail(authentication.getName());
-        return employee.map(Employee::getRoles).orElse(Set.of());
+        return memoizeForRequest("messageOwner:" + messageId,
+                () -> messageRepository.existsByIdAndEmployeeCode(messageId, currentUserCode));
+    }
+
+    public Set<String> getCurrentUserRoles() {
+        EmployeePrincipal principal = getCurrentPrincipal();
+        return principal != null ? principal.roles() : Set.of();
     }
 
-    @Transactional(readOnly = true)
     public String getCurrentUserCode() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null) return null;
+        EmployeePrincipal principal = getCurrentPrincipal();
+        return principal != null ? principal.code() : null;
+    }
 
-        Optional<Employee> employee = employeeRepository.findByEmail(authentication.getName());
-        return employee.map(Employee::getCode).orElse(null);
+    /**
+     * Returns the employee authenticated by the request token, built from its claims without any query.
+     */
+    public EmployeePrincipal getCurrentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof EmployeePrincipal principal) {
+            return principal;
+        }
+        return null;
     }
 
     @Transactional(readOnly = true)
     public boolean isDepartmentManager(String departmentCode) {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null) return false;
-
-        Optional<Employee> employee = employeeRepository.findByEmail(authentication.getName());
-        if (employee.isEmpty()) return false;
+        String currentUserCode = getCurrentUserCode();
+        if (currentUserCode == null || !hasRole("MANAGER")) return false;
 
-        // Check if user has MANAGER role and is assigned to the department
-        return hasRole("MANAGER") && employee.get().getEmployments().stream()
-                .anyMatch(e -> e.getDepartment().equals(departmentCode));
+        // Check that the manager is assigned to the department
+        return memoizeForRequest("departmentManager:" + departmentCode,
+                () -> employmentRepository.existsByEmployeeCodeAndDepartment(currentUserCode, departmentCode));
     }
 
     public boolean isAuthenticated() {
@@ -108,7 +116,6 @@ public class SecurityService {
         return isPayslipOwner(payslipId);
     }
 
-    @Transactional(readOnly = true)
     public boolean canManageEmployee(String employeeCode) {
         // Allow access if user is a manager or admin
         if (hasAnyRole("MANAGER", "ADMIN")) {
@@ -121,10 +128,10 @@ public class SecurityService {
 
     @Transactional(readOnly = true)
     public Employee getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null) return null;
+        String currentUserCode = getCurrentUserCode();
+        if (currentUserCode == null) return null;
 
-        return employeeRepository.findByEmail(authentication.getName())
+        return employeeRepository.findById(currentUserCode)
                 .orElse(null);
     }
 
@@ -139,4 +146,24 @@ public class SecurityService {
             throw new SecurityException("Access denied");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Caches the result of an access check in the current request, so a check made by
+     * {@code @PreAuthorize} and repeated by the service costs one query. Outside of a request
+     * the check is simply evaluated.
+     */
+    private boolean memoizeForRequest(String key, BooleanSupplier check) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return check.getAsBoolean();
+        }
+
+        String name = SecurityService.class.getName() + "." + key;
+        Boolean result = (Boolean) attributes.getAttribute(name, RequestAttributes.SCOPE_REQUEST);
+        if (result == null) {
+            result = check.getAsBoolean();
+            attributes.setAttribute(name, result, RequestAttributes.SCOPE_REQUEST);
+        }
+        return result;
+    }
+}
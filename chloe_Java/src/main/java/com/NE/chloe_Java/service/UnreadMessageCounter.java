@@ -0,0 +1,123 @@
+package com.NE.chloe_Java.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-employee count of unread messages. The count is kept in the message_counters table,
+ * updated in the same transaction as the messages themselves, and served from memory so the
+ * unread count no longer depends on the size of the message history.
+ * Cached counts are dropped when the updating transaction commits and expire after a short TTL
+ * so updates made by other instances are picked up too.
+ */
+@Component
+@RequiredArgsConstructor
+public class UnreadMessageCounter {
+
+    private static final String SELECT_SQL =
+            "SELECT unread_count FROM message_counters WHERE employee_id = ?";
+
+    private static final String INCREMENT_SQL =
+            "INSERT INTO message_counters (employee_id, unread_count) VALUES (?, 1) " +
+                    "ON DUPLICATE KEY UPDATE unread_count = unread_count + 1";
+
+    private static final String DECREMENT_SQL =
+            "UPDATE message_counters SET unread_count = GREATEST(unread_count - ?, 0) WHERE employee_id = ?";
+
+    private static final int GENERATION_STRIPES = 64;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${messages.unread-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    private final Map<String, Entry> counts = new ConcurrentHashMap<>();
+
+    // Bumped by every invalidation of a code hashing to the stripe; a load that saw an older
+    // generation may have read a count from before the commit and is not cached
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public long get(String employeeCode) {
+        long now = System.nanoTime();
+        Entry entry = counts.get(employeeCode);
+        if (entry == null || now - entry.loadedAt > TimeUnit.SECONDS.toNanos(ttlSeconds)) {
+            int stripe = stripe(employeeCode);
+            long generation = generations.get(stripe);
+            List<Long> rows = jdbcTemplate.queryForList(SELECT_SQL, Long.class, employeeCode);
+            Entry loaded = new Entry(rows.isEmpty() ? 0 : rows.get(0), now);
+            // Checked and stored under the key's lock, which invalidation also takes
+            counts.compute(employeeCode, (code, current) ->
+                    generations.get(stripe) == generation ? loaded : current);
+            entry = loaded;
+        }
+        return entry.count;
+    }
+
+    /**
+     * Counts one new unread message; must run in the transaction that inserts it.
+     */
+    public void increment(String employeeCode) {
+        jdbcTemplate.update(INCREMENT_SQL, employeeCode);
+        invalidateAfterCommit(List.of(employeeCode));
+    }
+
+    /**
+     * Counts one new unread message for each code, in a single batch; must run in the
+     * transaction that inserts the messages.
+     */
+    public void incrementAll(List<String> employeeCodes) {
+        jdbcTemplate.batchUpdate(INCREMENT_SQL, employeeCodes.stream()
+                .map(code -> new Object[]{code})
+                .toList());
+        invalidateAfterCommit(employeeCodes);
+    }
+
+    /**
+     * Counts messages as read; must run in the transaction that marks them.
+     */
+    public void decrement(String employeeCode, int count) {
+        if (count <= 0) {
+            return;
+        }
+        jdbcTemplate.update(DECREMENT_SQL, count, employeeCode);
+        invalidateAfterCommit(List.of(employeeCode));
+    }
+
+    private void invalidateAfterCommit(Collection<String> employeeCodes) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    employeeCodes.forEach(UnreadMessageCounter.this::invalidate);
+                }
+            });
+        } else {
+            employeeCodes.forEach(this::invalidate);
+        }
+    }
+
+    private void invalidate(String employeeCode) {
+        counts.compute(employeeCode, (code, current) -> {
+            generations.incrementAndGet(stripe(code));
+            return null;
+        });
+    }
+
+    private static int stripe(String employeeCode) {
+        return employeeCode.hashCode() & (GENERATION_STRIPES - 1);
+    }
+
+    private record Entry(long count, long loadedAt) {
+    }
+}
@@ -0,0 +1,21 @@
+-- Messages past the retention horizon are moved here by MessageRetentionService.
+-- Compressed rows keep the archive compact; it is only read by the paginated inbox.
+
+CREATE TABLE message_archive (
+    id          VARCHAR(255)  NOT NULL,
+    employee_id VARCHAR(255)  NOT NULL,
+    subject     VARCHAR(255)  NOT NULL,
+    content     VARCHAR(1000) NOT NULL,
+    is_read     BIT           NOT NULL,
+    created_at  DATETIME(6)   NOT NULL,
+    read_at     DATETIME(6),
+    archived_at DATETIME(6)   NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB
+  ROW_FORMAT = COMPRESSED
+  KEY_BLOCK_SIZE = 8;
+
+CREATE INDEX idx_message_archive_employee_created ON message_archive (employee_id, created_at, id);
+
+-- Lets the retention job find the oldest messages without scanning the table
+CREATE INDEX idx_messages_created ON messages (created_at, id);
@@ -0,0 +1,12 @@
+-- Notifications are stored as a template id plus a compact parameter payload and rendered
+-- when read. Content is only kept for free-text messages and rows written before this version.
+
+ALTER TABLE messages
+    ADD COLUMN template_id VARCHAR(64),
+    ADD COLUMN params      VARCHAR(500),
+    MODIFY content VARCHAR(1000) NULL;
+
+ALTER TABLE message_archive
+    ADD COLUMN template_id VARCHAR(64),
+    ADD COLUMN params      VARCHAR(500),
+    MODIFY content VARCHAR(1000) NULL;
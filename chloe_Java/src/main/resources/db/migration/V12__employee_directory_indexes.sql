@@ -0,0 +1,7 @@
+-- Support the paginated employee directory: keyset pages per status, name prefix filters
+-- and the department filter through active employments.
+
+CREATE INDEX idx_employees_status_code ON employees (status, code);
+CREATE INDEX idx_employees_first_name ON employees (first_name);
+CREATE INDEX idx_employees_last_name ON employees (last_name);
+CREATE INDEX idx_employments_department_status ON employments (department, status, employee_id);
@@ -0,0 +1,71 @@
+-- Schema as previously generated by Hibernate (ddl-auto=update).
+-- Existing databases are baselined at this version and start from V2.
+
+CREATE TABLE employees (
+    code          VARCHAR(255)               NOT NULL,
+    first_name    VARCHAR(255)               NOT NULL,
+    last_name     VARCHAR(255)               NOT NULL,
+    email         VARCHAR(255)               NOT NULL,
+    password      VARCHAR(255)               NOT NULL,
+    mobile        VARCHAR(255)               NOT NULL,
+    date_of_birth DATE                       NOT NULL,
+    status        ENUM ('ACTIVE','DISABLED') NOT NULL,
+    PRIMARY KEY (code),
+    CONSTRAINT uk_employees_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE employee_roles (
+    employee_code VARCHAR(255) NOT NULL,
+    role          VARCHAR(255),
+    CONSTRAINT fk_employee_roles_employee FOREIGN KEY (employee_code) REFERENCES employees (code)
+) ENGINE = InnoDB;
+
+CREATE TABLE employments (
+    code         VARCHAR(255)               NOT NULL,
+    employee_id  VARCHAR(255)               NOT NULL,
+    department   VARCHAR(255)               NOT NULL,
+    position     VARCHAR(255)               NOT NULL,
+    base_salary  DECIMAL(38, 2)             NOT NULL,
+    status       ENUM ('ACTIVE','INACTIVE') NOT NULL,
+    joining_date DATE                       NOT NULL,
+    PRIMARY KEY (code),
+    CONSTRAINT fk_employments_employee FOREIGN KEY (employee_id) REFERENCES employees (code)
+) ENGINE = InnoDB;
+
+CREATE TABLE payslips (
+    id                       VARCHAR(255)           NOT NULL,
+    employee_id              VARCHAR(255)           NOT NULL,
+    house_amount             DECIMAL(38, 2)         NOT NULL,
+    transport_amount         DECIMAL(38, 2)         NOT NULL,
+    employee_taxed_amount    DECIMAL(38, 2)         NOT NULL,
+    pension_amount           DECIMAL(38, 2)         NOT NULL,
+    medical_insurance_amount DECIMAL(38, 2)         NOT NULL,
+    other_taxed_amount       DECIMAL(38, 2)         NOT NULL,
+    gross_salary             DECIMAL(38, 2)         NOT NULL,
+    net_salary               DECIMAL(38, 2)         NOT NULL,
+    month                    INTEGER                NOT NULL,
+    year                     INTEGER                NOT NULL,
+    status                   ENUM ('PENDING','PAID') NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_payslips_employee FOREIGN KEY (employee_id) REFERENCES employees (code)
+) ENGINE = InnoDB;
+
+CREATE TABLE messages (
+    id          VARCHAR(255)  NOT NULL,
+    employee_id VARCHAR(255)  NOT NULL,
+    subject     VARCHAR(255)  NOT NULL,
+    content     VARCHAR(1000) NOT NULL,
+    is_read     BIT           NOT NULL,
+    created_at  DATETIME(6)   NOT NULL,
+    read_at     DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_messages_employee FOREIGN KEY (employee_id) REFERENCES employees (code)
+) ENGINE = InnoDB;
+
+CREATE TABLE deductions (
+    code           VARCHAR(255)   NOT NULL,
+    deduction_name VARCHAR(255)   NOT NULL,
+    percentage     DECIMAL(38, 2) NOT NULL,
+    PRIMARY KEY (code),
+    CONSTRAINT uk_deductions_name UNIQUE (deduction_name)
+) ENGINE = InnoDB;
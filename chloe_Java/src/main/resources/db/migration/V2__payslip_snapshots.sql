@@ -0,0 +1,42 @@
+-- Payslips keep the employee name, base salary and rule set version they were generated with.
+-- Databases that ran with ddl-auto=update may already have these columns, so each is added
+-- only when missing (MySQL has no ADD COLUMN IF NOT EXISTS).
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+               WHERE table_schema = DATABASE() AND table_name = 'payslips' AND column_name = 'employee_name') = 0,
+              'ALTER TABLE payslips ADD COLUMN employee_name VARCHAR(255) NULL AFTER employee_id',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+               WHERE table_schema = DATABASE() AND table_name = 'payslips' AND column_name = 'base_salary') = 0,
+              'ALTER TABLE payslips ADD COLUMN base_salary DECIMAL(38, 2) NULL AFTER employee_name',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+               WHERE table_schema = DATABASE() AND table_name = 'payslips' AND column_name = 'rule_set_version') = 0,
+              'ALTER TABLE payslips ADD COLUMN rule_set_version BIGINT NULL AFTER base_salary',
+              'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Gross salary is base plus allowances, so the historical base salary is recovered exactly.
+-- Columns added by Hibernate as NOT NULL were filled with 0 and '' rather than NULL.
+UPDATE payslips
+SET base_salary = gross_salary - house_amount - transport_amount
+WHERE base_salary IS NULL OR base_salary = 0;
+
+UPDATE payslips p
+    JOIN employees e ON e.code = p.employee_id
+SET p.employee_name = CONCAT(e.first_name, ' ', e.last_name)
+WHERE p.employee_name IS NULL OR p.employee_name = '';
+
+ALTER TABLE payslips
+    MODIFY employee_name VARCHAR(255)   NOT NULL,
+    MODIFY base_salary   DECIMAL(38, 2) NOT NULL;
@@ -0,0 +1,23 @@
+-- One payslip per employee and period; also serves the duplicate check and employee listings.
+-- Concurrent requests could generate duplicates before this constraint existed. One payslip is
+-- kept per period: a PAID one over a PENDING one, then the lowest id. The others are copied to
+-- payslip_duplicates for review and removed.
+CREATE TABLE payslip_duplicates AS
+SELECT DISTINCT p.*
+FROM payslips p
+         JOIN payslips k ON k.employee_id = p.employee_id AND k.year = p.year AND k.month = p.month
+WHERE (k.status = 'PAID' AND p.status <> 'PAID')
+   OR (k.status = p.status AND k.id < p.id);
+
+DELETE p
+FROM payslips p
+         JOIN payslip_duplicates d ON d.id = p.id;
+
+ALTER TABLE payslips
+    ADD CONSTRAINT uk_payslips_employee_period UNIQUE (employee_id, year, month);
+
+CREATE INDEX idx_payslips_period_status ON payslips (year, month, status);
+
+CREATE INDEX idx_messages_employee_read_created ON messages (employee_id, is_read, created_at);
+
+CREATE INDEX idx_employments_employee_status ON employments (employee_id, status);
@@ -0,0 +1,4 @@
+-- Optimistic-lock version of a payslip, also used to key cached PDFs and ETags.
+
+ALTER TABLE payslips
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
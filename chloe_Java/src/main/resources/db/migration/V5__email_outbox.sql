@@ -0,0 +1,17 @@
+-- Transactional outbox for emails, drained in batches by the background dispatcher.
+
+CREATE TABLE email_outbox (
+    id              VARCHAR(255)                     NOT NULL,
+    recipient       VARCHAR(255)                     NOT NULL,
+    subject         VARCHAR(255)                     NOT NULL,
+    content         TEXT                             NOT NULL,
+    status          ENUM ('PENDING','SENT','FAILED') NOT NULL,
+    attempts        INTEGER                          NOT NULL,
+    next_attempt_at DATETIME(6)                      NOT NULL,
+    created_at      DATETIME(6)                      NOT NULL,
+    sent_at         DATETIME(6),
+    last_error      VARCHAR(1000),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_email_outbox_status_next_attempt ON email_outbox (status, next_attempt_at);
@@ -0,0 +1,4 @@
+-- Bumped whenever an employee is disabled or changes credentials, revoking previously issued tokens.
+
+ALTER TABLE employees
+    ADD COLUMN security_version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,9 @@
+-- Identifiers (jti) of access and refresh tokens revoked before they expire.
+
+CREATE TABLE revoked_tokens (
+    token_id   VARCHAR(255) NOT NULL,
+    expires_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (token_id)
+) ENGINE = InnoDB;
+
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
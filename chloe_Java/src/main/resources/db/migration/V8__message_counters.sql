@@ -0,0 +1,14 @@
+-- Denormalized unread message count per employee, maintained alongside the messages.
+
+CREATE TABLE message_counters (
+    employee_id  VARCHAR(255) NOT NULL,
+    unread_count BIGINT       NOT NULL,
+    PRIMARY KEY (employee_id),
+    CONSTRAINT fk_message_counters_employee FOREIGN KEY (employee_id) REFERENCES employees (code)
+) ENGINE = InnoDB;
+
+INSERT INTO message_counters (employee_id, unread_count)
+SELECT employee_id, COUNT(*)
+FROM messages
+WHERE is_read = FALSE
+GROUP BY employee_id;
@@ -0,0 +1,3 @@
+-- Serves the keyset-paginated inbox, which is ordered by creation time regardless of read state.
+
+CREATE INDEX idx_messages_employee_created ON messages (employee_id, created_at, id);
@@ -0,0 +1,80 @@
+package com.NE.chloe_Java.benchmark;
+
+import com.NE.chloe_Java.entity.Employee;
+import com.NE.chloe_Java.security.EmployeePrincipal;
+import com.NE.chloe_Java.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token: one verification with the cached key and
+ * parser against the three verifications, each decoding the key and building a parser, that the
+ * filter used to do. Run from the IDE or with {@code java -cp target/test-classes:<test classpath>
+ * com.NE.chloe_Java.benchmark.JwtParseBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtParseBenchmark {
+
+    private String secret;
+    private JwtTokenProvider tokenProvider;
+    private String token;
+
+    @Setup
+    public void createToken() {
+        secret = Base64.getUrlEncoder().encodeToString(new byte[32]);
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", secret);
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(tokenProvider, "refreshExpiration", 3_600_000L);
+        ReflectionTestUtils.invokeMethod(tokenProvider, "init");
+
+        Employee employee = new Employee();
+        employee.setCode("EMP001");
+        employee.setEmail("manager@example.com");
+        employee.setRoles(Set.of("ROLE_MANAGER", "ROLE_EMPLOYEE"));
+        token = tokenProvider.generateToken(employee);
+    }
+
+    @Benchmark
+    public EmployeePrincipal parseOnce() {
+        Claims claims = tokenProvider.parseToken(token);
+        return claims != null ? tokenProvider.toPrincipal(claims) : null;
+    }
+
+    @Benchmark
+    public void parsePerClaim(Blackhole blackhole) {
+        // validateToken, getUsernameFromToken and getRolesFromToken each verified the token again
+        blackhole.consume(parseWithNewParser() != null);
+        blackhole.consume(parseWithNewParser().getSubject());
+        blackhole.consume(parseWithNewParser().get(JwtTokenProvider.CLAIM_ROLES, String.class));
+    }
+
+    private Claims parseWithNewParser() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64URL.decode(secret)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtParseBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,84 @@
+package com.NE.chloe_Java.benchmark;
+
+import com.NE.chloe_Java.entity.Payslip;
+import com.NE.chloe_Java.service.PayRuleSet;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-payslip cost of the precompiled fixed-point rule set against the BigDecimal arithmetic it
+ * replaced. Run from the IDE or with {@code java -cp target/test-classes:<test classpath>
+ * com.NE.chloe_Java.benchmark.PayRuleSetBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayRuleSetBenchmark {
+
+    private final PayRuleSet ruleSet = PayRuleSet.defaults();
+    private BigDecimal[] salaries;
+    private int next;
+
+    @Setup
+    public void createSalaries() {
+        Random random = new Random(42);
+        salaries = new BigDecimal[1024];
+        for (int i = 0; i < salaries.length; i++) {
+            salaries[i] = BigDecimal.valueOf(random.nextLong(10_000_00L, 10_000_000_00L), 2);
+        }
+    }
+
+    private BigDecimal nextSalary() {
+        return salaries[next++ & (salaries.length - 1)];
+    }
+
+    @Benchmark
+    public Payslip ruleSet() {
+        Payslip payslip = new Payslip();
+        ruleSet.apply(payslip, nextSalary());
+        return payslip;
+    }
+
+    @Benchmark
+    public Payslip bigDecimal() {
+        BigDecimal baseSalary = nextSalary();
+        Payslip payslip = new Payslip();
+        BigDecimal houseAmount = percentOf(baseSalary, new BigDecimal("14.00"));
+        BigDecimal transportAmount = percentOf(baseSalary, new BigDecimal("14.00"));
+        BigDecimal grossSalary = baseSalary.add(houseAmount).add(transportAmount);
+        BigDecimal employeeTax = percentOf(baseSalary, new BigDecimal("30.00"));
+        BigDecimal pension = percentOf(baseSalary, new BigDecimal("6.00"));
+        BigDecimal medicalInsurance = percentOf(baseSalary, new BigDecimal("5.00"));
+        BigDecimal others = percentOf(baseSalary, new BigDecimal("5.00"));
+        BigDecimal totalDeductions = employeeTax.add(pension).add(medicalInsurance).add(others);
+
+        payslip.setBaseSalary(baseSalary);
+        payslip.setHouseAmount(houseAmount);
+        payslip.setTransportAmount(transportAmount);
+        payslip.setEmployeeTaxedAmount(employeeTax);
+        payslip.setPensionAmount(pension);
+        payslip.setMedicalInsuranceAmount(medicalInsurance);
+        payslip.setOtherTaxedAmount(others);
+        payslip.setGrossSalary(grossSalary);
+        payslip.setNetSalary(grossSalary.subtract(totalDeductions));
+        return payslip;
+    }
+
+    private static BigDecimal percentOf(BigDecimal amount, BigDecimal percentage) {
+        return amount.multiply(percentage).divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PayRuleSetBenchmark.class.getSimpleName()).build()).run();
+    }
+}
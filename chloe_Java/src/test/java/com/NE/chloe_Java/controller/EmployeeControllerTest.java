@@ -0,0 +1,165 @@
+package com.NE.chloe_Java.controller;
+
+import com.NE.chloe_Java.entity.Employee;
+import com.NE.chloe_Java.entity.Employment;
+import com.NE.chloe_Java.security.SecurityVersionCache;
+import com.NE.chloe_Java.service.EmployeeCache;
+import com.NE.chloe_Java.service.EmployeeImportService;
+import com.NE.chloe_Java.service.EmployeeSearchIndex;
+import com.NE.chloe_Java.service.EmployeeService;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the employee directory routes against the real service and repository on H2: the original
+ * list route keeps its array shape, and the paged route filters and follows its cursor to the end.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import(EmployeeService.class)
+class EmployeeControllerTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoBean
+    private SecurityVersionCache securityVersionCache;
+
+    @MockitoBean
+    private EmployeeSearchIndex employeeSearchIndex;
+
+    @MockitoBean
+    private EmployeeCache employeeCache;
+
+    @MockitoBean
+    private EmployeeImportService employeeImportService;
+
+    private MockMvc mockMvc;
+    private final List<String> activeCodes = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new EmployeeController(employeeService, employeeImportService))
+                .build();
+
+        persistEmployee("Alice", "Mugisha", "Finance", Employee.EmployeeStatus.ACTIVE);
+        persistEmployee("Alfred", "Nkusi", "IT", Employee.EmployeeStatus.ACTIVE);
+        persistEmployee("Bob", "Alvarez", "IT", Employee.EmployeeStatus.ACTIVE);
+        persistEmployee("Claire", "Uwase", "Finance", Employee.EmployeeStatus.ACTIVE);
+        persistEmployee("David", "Habimana", "HR", Employee.EmployeeStatus.ACTIVE);
+        persistEmployee("Alma", "Disabled", "IT", Employee.EmployeeStatus.DISABLED);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void listRouteStillReturnsEveryEmployeeAsAnArray() throws Exception {
+        mockMvc.perform(get("/api/employees"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray())
+                .andExpect(jsonPath("$", hasSize(6)))
+                .andExpect(jsonPath("$[0].roles[0]").value("ROLE_EMPLOYEE"));
+    }
+
+    @Test
+    void pageRouteFiltersByStatusNameAndDepartment() throws Exception {
+        // Active by default; the name matches a first or last name prefix
+        mockMvc.perform(get("/api/employees/page").param("name", "Al"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[*].firstName", containsInAnyOrder("Alice", "Alfred", "Bob")))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        mockMvc.perform(get("/api/employees/page").param("status", "DISABLED"))
+                .andExpect(jsonPath("$.items[*].firstName", containsInAnyOrder("Alma")));
+
+        mockMvc.perform(get("/api/employees/page").param("department", "IT"))
+                .andExpect(jsonPath("$.items[*].firstName", containsInAnyOrder("Alfred", "Bob")));
+
+        mockMvc.perform(get("/api/employees/page").param("name", "Al").param("department", "Finance"))
+                .andExpect(jsonPath("$.items[*].firstName", containsInAnyOrder("Alice")));
+
+        // LIKE wildcards in the name are matched literally
+        mockMvc.perform(get("/api/employees/page").param("name", "%"))
+                .andExpect(jsonPath("$.items", hasSize(0)));
+    }
+
+    @Test
+    void pageRouteCursorVisitsEveryEmployeeOnce() throws Exception {
+        List<String> visited = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var request = get("/api/employees/page").param("size", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+
+            List<String> codes = JsonPath.read(body, "$.items[*].code");
+            visited.addAll(codes);
+            cursor = JsonPath.read(body, "$.nextCursor");
+            pages++;
+        } while (cursor != null && pages < 10);
+
+        // Five active employees in pages of two, ordered by code
+        assertThat(pages).isEqualTo(3);
+        assertThat(visited).containsExactlyElementsOf(activeCodes.stream().sorted().toList());
+    }
+
+    private void persistEmployee(String firstName, String lastName, String department,
+                                 Employee.EmployeeStatus status) {
+        Employee employee = new Employee();
+        employee.setFirstName(firstName);
+        employee.setLastName(lastName);
+        employee.setEmail(firstName.toLowerCase() + "@example.com");
+        employee.setPassword("password");
+        employee.setMobile("0780000000");
+        employee.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        employee.setStatus(status);
+        employee.getRoles().add("ROLE_EMPLOYEE");
+        entityManager.persist(employee);
+        if (status == Employee.EmployeeStatus.ACTIVE) {
+            activeCodes.add(employee.getCode());
+        }
+
+        Employment employment = new Employment();
+        employment.setEmployee(employee);
+        employment.setDepartment(department);
+        employment.setPosition("Officer");
+        employment.setBaseSalary(new BigDecimal("500000.00"));
+        employment.setJoiningDate(LocalDate.of(2020, 1, 1));
+        entityManager.persist(employment);
+    }
+}
@@ -0,0 +1,110 @@
+package com.NE.chloe_Java.security;
+
+import com.NE.chloe_Java.entity.Employee;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that an authenticated request verifies its token exactly once.
+ */
+class JwtAuthenticationFilterTest {
+
+    private JwtTokenProvider tokenProvider;
+    private SecurityVersionCache securityVersionCache;
+    private TokenRevocationService tokenRevocationService;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = spy(newTokenProvider());
+        securityVersionCache = mock(SecurityVersionCache.class);
+        tokenRevocationService = mock(TokenRevocationService.class);
+        when(securityVersionCache.isCurrent(anyString(), anyLong())).thenReturn(true);
+        when(tokenRevocationService.isRevoked(anyString())).thenReturn(false);
+        filter = new JwtAuthenticationFilter(tokenProvider, securityVersionCache, tokenRevocationService);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void authenticatedRequestParsesTheTokenOnce() throws Exception {
+        String token = tokenProvider.generateToken(employee());
+
+        filter.doFilter(requestWithToken(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        verify(tokenProvider, times(1)).parseToken(token);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication).isNotNull();
+        assertThat(((EmployeePrincipal) authentication.getPrincipal()).code()).isEqualTo("EMP001");
+        assertThat(authentication.getAuthorities()).extracting("authority").contains("ROLE_MANAGER");
+    }
+
+    @Test
+    void refreshTokenIsParsedOnceAndNotAccepted() throws Exception {
+        String token = tokenProvider.generateRefreshToken(employee());
+
+        filter.doFilter(requestWithToken(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        verify(tokenProvider, times(1)).parseToken(token);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void requestWithoutTokenIsNotParsed() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/payslips/pending"),
+                new MockHttpServletResponse(), new MockFilterChain());
+
+        verify(tokenProvider, never()).parseToken(anyString());
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    private static JwtTokenProvider newTokenProvider() {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        byte[] secret = new byte[32];
+        for (int i = 0; i < secret.length; i++) {
+            secret[i] = (byte) i;
+        }
+        ReflectionTestUtils.setField(provider, "jwtSecret", Base64.getUrlEncoder().encodeToString(secret));
+        ReflectionTestUtils.setField(provider, "jwtExpiration", 900_000L);
+        ReflectionTestUtils.setField(provider, "refreshExpiration", 604_800_000L);
+        provider.init();
+        return provider;
+    }
+
+    private static Employee employee() {
+        Employee employee = new Employee();
+        employee.setCode("EMP001");
+        employee.setEmail("manager@example.com");
+        employee.setRoles(Set.of("ROLE_MANAGER"));
+        return employee;
+    }
+
+    private static MockHttpServletRequest requestWithToken(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/payslips/pending");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
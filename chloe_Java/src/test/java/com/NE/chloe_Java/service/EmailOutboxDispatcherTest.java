@@ -0,0 +1,259 @@
+package com.NE.chloe_Java.service;
+
+import com.NE.chloe_Java.entity.EmailOutbox;
+import com.NE.chloe_Java.repository.EmailOutboxRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives the outbox cycle: claim due rows under a lease, send them, then mark them sent or
+ * reschedule them with exponential backoff. Uses a fake sender for failure paths and a local
+ * GreenMail SMTP server for the real transport.
+ */
+class EmailOutboxDispatcherTest {
+
+    private static final int BATCH_SIZE = 10;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long BACKOFF_SECONDS = 30;
+    private static final long LEASE_SECONDS = 600;
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private EmailOutboxRepository repository;
+    private List<EmailOutbox> outbox;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(EmailOutboxRepository.class);
+        outbox = new ArrayList<>();
+        // Returns the due rows once, as the database would after they are leased
+        when(repository.findByStatusAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+                eq(EmailOutbox.EmailStatus.PENDING), any(), any()))
+                .thenAnswer(invocation -> {
+                    LocalDateTime now = invocation.getArgument(1);
+                    List<EmailOutbox> due = outbox.stream()
+                            .filter(entry -> entry.getStatus() == EmailOutbox.EmailStatus.PENDING)
+                            .filter(entry -> !entry.getNextAttemptAt().isAfter(now))
+                            .toList();
+                    return new ArrayList<>(due);
+                });
+    }
+
+    @Test
+    void sendsLeasedEmailsAndMarksThemSent() {
+        FakeMailSender sender = new FakeMailSender();
+        EmailOutbox first = queue("first@example.com", 0);
+        EmailOutbox second = queue("second@example.com", 0);
+
+        dispatcher(sender).dispatch();
+
+        assertThat(sender.sent).hasSize(2);
+        // Both rows were still leased while the batch was on the wire
+        assertThat(sender.leasesAtSend).allSatisfy(lease ->
+                assertThat(lease).isCloseTo(sender.sendStartedAt.plusSeconds(LEASE_SECONDS),
+                        within(5, ChronoUnit.SECONDS)));
+        for (EmailOutbox entry : List.of(first, second)) {
+            assertThat(entry.getStatus()).isEqualTo(EmailOutbox.EmailStatus.SENT);
+            assertThat(entry.getAttempts()).isEqualTo(1);
+            assertThat(entry.getSentAt()).isNotNull();
+            assertThat(entry.getLastError()).isNull();
+        }
+    }
+
+    @Test
+    void failedSendsBackOffExponentially() {
+        FakeMailSender sender = new FakeMailSender();
+        sender.failure = new MailSendException("Connection refused");
+        EmailOutbox entry = queue("retry@example.com", 0);
+        EmailOutboxDispatcher dispatcher = dispatcher(sender);
+
+        dispatcher.dispatch();
+        LocalDateTime firstRetry = entry.getNextAttemptAt();
+        assertThat(entry.getStatus()).isEqualTo(EmailOutbox.EmailStatus.PENDING);
+        assertThat(entry.getAttempts()).isEqualTo(1);
+        assertThat(entry.getLastError()).isEqualTo("Connection refused");
+        assertThat(firstRetry).isCloseTo(LocalDateTime.now().plusSeconds(BACKOFF_SECONDS),
+                within(5, ChronoUnit.SECONDS));
+
+        // Make the retry due and fail it again: the delay doubles
+        entry.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        dispatcher.dispatch();
+        assertThat(entry.getAttempts()).isEqualTo(2);
+        assertThat(entry.getNextAttemptAt()).isCloseTo(LocalDateTime.now().plusSeconds(BACKOFF_SECONDS * 2),
+                within(5, ChronoUnit.SECONDS));
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        FakeMailSender sender = new FakeMailSender();
+        sender.failure = new MailSendException("Mailbox unavailable");
+        EmailOutbox entry = queue("gone@example.com", MAX_ATTEMPTS - 1);
+
+        dispatcher(sender).dispatch();
+
+        assertThat(entry.getStatus()).isEqualTo(EmailOutbox.EmailStatus.FAILED);
+        assertThat(entry.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+    }
+
+    @Test
+    void onlyRejectedMessagesOfABatchAreRetried() {
+        FakeMailSender sender = new FakeMailSender();
+        EmailOutbox accepted = queue("accepted@example.com", 0);
+        EmailOutbox rejected = queue("rejected@example.com", 0);
+        sender.rejectRecipient = "rejected@example.com";
+
+        dispatcher(sender).dispatch();
+
+        assertThat(accepted.getStatus()).isEqualTo(EmailOutbox.EmailStatus.SENT);
+        assertThat(rejected.getStatus()).isEqualTo(EmailOutbox.EmailStatus.PENDING);
+        assertThat(rejected.getAttempts()).isEqualTo(1);
+        assertThat(rejected.getLastError()).isEqualTo("550 Recipient rejected");
+    }
+
+    @Test
+    void deliversOverSmtpThenBacksOffWhenTheServerIsDown() throws Exception {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("localhost");
+        sender.setPort(greenMail.getSmtp().getPort());
+        Properties properties = new Properties();
+        properties.put("mail.smtp.connectiontimeout", "2000");
+        properties.put("mail.smtp.timeout", "2000");
+        properties.put("mail.smtp.writetimeout", "2000");
+        sender.setJavaMailProperties(properties);
+        EmailOutboxDispatcher dispatcher = dispatcher(sender);
+
+        EmailOutbox delivered = queue("employee@example.com", 0);
+        dispatcher.dispatch();
+
+        assertThat(greenMail.waitForIncomingEmail(5_000, 1)).isTrue();
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(1);
+        assertThat(received[0].getSubject()).isEqualTo("Subject for employee@example.com");
+        assertThat(delivered.getStatus()).isEqualTo(EmailOutbox.EmailStatus.SENT);
+
+        greenMail.stop();
+        EmailOutbox pending = queue("later@example.com", 0);
+        dispatcher.dispatch();
+
+        assertThat(pending.getStatus()).isEqualTo(EmailOutbox.EmailStatus.PENDING);
+        assertThat(pending.getAttempts()).isEqualTo(1);
+        assertThat(pending.getLastError()).isNotBlank();
+        assertThat(pending.getNextAttemptAt()).isAfter(LocalDateTime.now());
+    }
+
+    @Test
+    void rejectsALeaseShorterThanAWorstCaseSend() {
+        EmailOutboxDispatcher dispatcher = dispatcher(new FakeMailSender());
+        // 1 s to connect plus 10 messages that may each wait 60 s
+        ReflectionTestUtils.setField(dispatcher, "readTimeoutMs", 60_000L);
+        ReflectionTestUtils.setField(dispatcher, "leaseSeconds", 300L);
+
+        assertThatThrownBy(dispatcher::checkLease)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("email.outbox.lease-seconds");
+    }
+
+    private EmailOutbox queue(String recipient, int attempts) {
+        EmailOutbox entry = EmailOutbox.builder()
+                .id(recipient)
+                .recipient(recipient)
+                .subject("Subject for " + recipient)
+                .content("<p>Hello</p>")
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now().minusSeconds(1))
+                .createdAt(LocalDateTime.now())
+                .build();
+        outbox.add(entry);
+        return entry;
+    }
+
+    private EmailOutboxDispatcher dispatcher(JavaMailSender sender) {
+        EmailService emailService = new EmailService(sender, repository);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        EmailOutboxDispatcher dispatcher = new EmailOutboxDispatcher(repository, emailService, sender,
+                transactionTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(dispatcher, "batchSize", BATCH_SIZE);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", MAX_ATTEMPTS);
+        ReflectionTestUtils.setField(dispatcher, "backoffSeconds", BACKOFF_SECONDS);
+        ReflectionTestUtils.setField(dispatcher, "leaseSeconds", LEASE_SECONDS);
+        ReflectionTestUtils.setField(dispatcher, "connectionTimeoutMs", 1_000L);
+        ReflectionTestUtils.setField(dispatcher, "readTimeoutMs", 10_000L);
+        ReflectionTestUtils.setField(dispatcher, "writeTimeoutMs", 10_000L);
+        dispatcher.checkLease();
+        dispatcher.registerMetrics();
+        return dispatcher;
+    }
+
+    /**
+     * Records what would have gone over SMTP, and the lease the outbox rows held at that moment.
+     */
+    private class FakeMailSender extends JavaMailSenderImpl {
+        private final List<MimeMessage> sent = new ArrayList<>();
+        private final List<LocalDateTime> leasesAtSend = new ArrayList<>();
+        private LocalDateTime sendStartedAt;
+        private MailSendException failure;
+        private String rejectRecipient;
+
+        @Override
+        public void send(MimeMessage... messages) {
+            sendStartedAt = LocalDateTime.now();
+            outbox.stream()
+                    .filter(entry -> entry.getStatus() == EmailOutbox.EmailStatus.PENDING)
+                    .forEach(entry -> leasesAtSend.add(entry.getNextAttemptAt()));
+            if (failure != null) {
+                throw failure;
+            }
+
+            Map<Object, Exception> rejected = new LinkedHashMap<>();
+            for (MimeMessage message : messages) {
+                if (rejectRecipient != null && isAddressedTo(message, rejectRecipient)) {
+                    rejected.put(message, new Exception("550 Recipient rejected"));
+                } else {
+                    sent.add(message);
+                }
+            }
+            if (!rejected.isEmpty()) {
+                throw new MailSendException(rejected);
+            }
+        }
+
+        private boolean isAddressedTo(MimeMessage message, String recipient) {
+            try {
+                return Arrays.stream(message.getAllRecipients()).map(Address::toString).anyMatch(recipient::equals);
+            } catch (MessagingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
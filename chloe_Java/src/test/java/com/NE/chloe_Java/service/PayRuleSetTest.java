@@ -0,0 +1,113 @@
+package com.NE.chloe_Java.service;
+
+import com.NE.chloe_Java.dto.deduction.DeductionRequest;
+import com.NE.chloe_Java.entity.Payslip;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the fixed-point rule set produces exactly the amounts of the BigDecimal arithmetic
+ * it replaced: amount * rate / 100, rounded HALF_UP to cents, per component.
+ */
+class PayRuleSetTest {
+
+    private static final List<String> COMPONENTS = List.of(
+            DeductionRequest.HOUSING, DeductionRequest.TRANSPORT, DeductionRequest.EMPLOYEE_TAX,
+            DeductionRequest.PENSION, DeductionRequest.MEDICAL_INSURANCE, DeductionRequest.OTHERS);
+
+    private static final List<String> RATES = List.of(
+            "0", "0.01", "1", "2.5", "5.00", "6.00", "7.125", "12.3456", "14.00", "30.00", "33.3333",
+            "49.995", "99.99", "100", "12.34567");
+
+    @Test
+    void defaultRatesMatchDecimalArithmetic() {
+        PayRuleSet ruleSet = PayRuleSet.defaults();
+        Map<String, BigDecimal> rates = new LinkedHashMap<>();
+        rates.put(DeductionRequest.HOUSING, new BigDecimal("14.00"));
+        rates.put(DeductionRequest.TRANSPORT, new BigDecimal("14.00"));
+        rates.put(DeductionRequest.EMPLOYEE_TAX, new BigDecimal("30.00"));
+        rates.put(DeductionRequest.PENSION, new BigDecimal("6.00"));
+        rates.put(DeductionRequest.MEDICAL_INSURANCE, new BigDecimal("5.00"));
+        rates.put(DeductionRequest.OTHERS, new BigDecimal("5.00"));
+
+        for (BigDecimal salary : salaries()) {
+            assertSameAmounts(ruleSet, rates, salary);
+        }
+    }
+
+    @Test
+    void configuredRatesMatchDecimalArithmetic() {
+        for (String component : COMPONENTS) {
+            for (String rate : RATES) {
+                Map<String, BigDecimal> rates = new LinkedHashMap<>();
+                COMPONENTS.forEach(name -> rates.put(name, new BigDecimal("10")));
+                rates.put(component, new BigDecimal(rate));
+                PayRuleSet ruleSet = PayRuleSet.compile(rates);
+
+                for (BigDecimal salary : salaries()) {
+                    assertSameAmounts(ruleSet, rates, salary);
+                }
+            }
+        }
+    }
+
+    @Test
+    void versionDependsOnlyOnRates() {
+        Map<String, BigDecimal> rates = Map.of(DeductionRequest.PENSION, new BigDecimal("6.0"));
+        assertThat(PayRuleSet.compile(rates).getVersion()).isEqualTo(PayRuleSet.defaults().getVersion());
+        assertThat(PayRuleSet.compile(Map.of(DeductionRequest.PENSION, new BigDecimal("7"))).getVersion())
+                .isNotEqualTo(PayRuleSet.defaults().getVersion());
+    }
+
+    private static List<BigDecimal> salaries() {
+        List<BigDecimal> salaries = new ArrayList<>(List.of(
+                new BigDecimal("0"), new BigDecimal("0.00"), new BigDecimal("0.01"), new BigDecimal("0.05"),
+                new BigDecimal("0.49"), new BigDecimal("0.50"), new BigDecimal("0.99"), new BigDecimal("1"),
+                new BigDecimal("333.33"), new BigDecimal("100000"), new BigDecimal("123456.785"),
+                new BigDecimal("1234567.89"), new BigDecimal("999999999999.99"),
+                new BigDecimal("92233720368547758.07"), new BigDecimal("123456789012345678901234.56")));
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            salaries.add(BigDecimal.valueOf(random.nextLong(0, 10_000_000_000L), 2));
+        }
+        return salaries;
+    }
+
+    private static void assertSameAmounts(PayRuleSet ruleSet, Map<String, BigDecimal> rates, BigDecimal salary) {
+        Payslip payslip = new Payslip();
+        ruleSet.apply(payslip, salary);
+
+        BigDecimal house = percentOf(salary, rates.get(DeductionRequest.HOUSING));
+        BigDecimal transport = percentOf(salary, rates.get(DeductionRequest.TRANSPORT));
+        BigDecimal tax = percentOf(salary, rates.get(DeductionRequest.EMPLOYEE_TAX));
+        BigDecimal pension = percentOf(salary, rates.get(DeductionRequest.PENSION));
+        BigDecimal medical = percentOf(salary, rates.get(DeductionRequest.MEDICAL_INSURANCE));
+        BigDecimal others = percentOf(salary, rates.get(DeductionRequest.OTHERS));
+        BigDecimal gross = salary.add(house).add(transport);
+        BigDecimal net = gross.subtract(tax.add(pension).add(medical).add(others));
+
+        String context = "salary " + salary + " with rates " + rates;
+        assertThat(payslip.getHouseAmount()).as(context).isEqualByComparingTo(house);
+        assertThat(payslip.getTransportAmount()).as(context).isEqualByComparingTo(transport);
+        assertThat(payslip.getEmployeeTaxedAmount()).as(context).isEqualByComparingTo(tax);
+        assertThat(payslip.getPensionAmount()).as(context).isEqualByComparingTo(pension);
+        assertThat(payslip.getMedicalInsuranceAmount()).as(context).isEqualByComparingTo(medical);
+        assertThat(payslip.getOtherTaxedAmount()).as(context).isEqualByComparingTo(others);
+        assertThat(payslip.getGrossSalary()).as(context).isEqualByComparingTo(gross);
+        assertThat(payslip.getNetSalary()).as(context).isEqualByComparingTo(net);
+    }
+
+    // The arithmetic PayslipService used before the rule set
+    private static BigDecimal percentOf(BigDecimal amount, BigDecimal percentage) {
+        return amount.multiply(percentage).divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
+    }
+}
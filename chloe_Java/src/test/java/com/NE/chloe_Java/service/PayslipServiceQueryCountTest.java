@@ -0,0 +1,142 @@
+package com.NE.chloe_Java.service;
+
+import com.NE.chloe_Java.dto.payslip.PayslipResponse;
+import com.NE.chloe_Java.entity.Employee;
+import com.NE.chloe_Java.entity.Payslip;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that the payslip listings behind GET /api/payslips/pending and GET /api/payslips/employee/{code}
+ * run a single SQL statement however many payslips they return.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(PayslipService.class)
+class PayslipServiceQueryCountTest {
+
+    private static final int EMPLOYEES = 25;
+    private static final int MONTH = 5;
+    private static final int YEAR = 2026;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PayslipService payslipService;
+
+    @MockitoBean
+    private EmployeeCache employeeCache;
+
+    @MockitoBean
+    private MessageService messageService;
+
+    @MockitoBean
+    private SecurityService securityService;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @MockitoBean
+    private PayslipCalculator payslipCalculator;
+
+    @MockitoBean
+    private PayslipPdfCache pdfCache;
+
+    @MockitoBean
+    private ObjectMapper objectMapper;
+
+    private Employee firstEmployee;
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        when(securityService.hasRole("MANAGER")).thenReturn(true);
+
+        for (int i = 0; i < EMPLOYEES; i++) {
+            Employee employee = persistEmployee(i);
+            if (firstEmployee == null) {
+                firstEmployee = employee;
+            }
+            persistPayslip(employee, MONTH, YEAR);
+        }
+        // The first employee also gets a payslip history as long as the pending list
+        for (int i = 1; i < EMPLOYEES; i++) {
+            persistPayslip(firstEmployee, (i - 1) % 12 + 1, YEAR - 1 - (i - 1) / 12);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void pendingPayslipsUseOneStatement() {
+        List<PayslipResponse> payslips = payslipService.getPayslipsByMonthAndYear(MONTH, YEAR);
+
+        assertThat(payslips).hasSize(EMPLOYEES);
+        assertThat(payslips).allSatisfy(payslip -> assertThat(payslip.getEmployeeName()).isNotBlank());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void employeePayslipsUseOneStatement() {
+        List<PayslipResponse> payslips = payslipService.getPayslipsByEmployee(firstEmployee.getCode());
+
+        assertThat(payslips).hasSize(EMPLOYEES);
+        assertThat(payslips).allSatisfy(payslip ->
+                assertThat(payslip.getEmployeeCode()).isEqualTo(firstEmployee.getCode()));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private Employee persistEmployee(int index) {
+        Employee employee = new Employee();
+        employee.setFirstName("First" + index);
+        employee.setLastName("Last" + index);
+        employee.setEmail("employee" + index + "@example.com");
+        employee.setPassword("password");
+        employee.setMobile("07800000" + String.format("%02d", index));
+        employee.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        employee.getRoles().add("EMPLOYEE");
+        return entityManager.persist(employee);
+    }
+
+    private void persistPayslip(Employee employee, int month, int year) {
+        BigDecimal amount = new BigDecimal("100000.00");
+        Payslip payslip = new Payslip();
+        payslip.setEmployee(employee);
+        payslip.setEmployeeName(employee.getFirstName() + " " + employee.getLastName());
+        payslip.setBaseSalary(amount);
+        payslip.setHouseAmount(amount);
+        payslip.setTransportAmount(amount);
+        payslip.setEmployeeTaxedAmount(amount);
+        payslip.setPensionAmount(amount);
+        payslip.setMedicalInsuranceAmount(amount);
+        payslip.setOtherTaxedAmount(amount);
+        payslip.setGrossSalary(amount);
+        payslip.setNetSalary(amount);
+        payslip.setMonth(month);
+        payslip.setYear(year);
+        entityManager.persist(payslip);
+    }
+}